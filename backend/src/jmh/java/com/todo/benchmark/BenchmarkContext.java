@@ -0,0 +1,84 @@
+package com.todo.benchmark;
+
+import com.todo.TodoBackendApplication;
+import com.todo.model.Task;
+import com.todo.repository.TaskRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the application without a web server against a private in-memory H2
+ * database for benchmarks
+ */
+public final class BenchmarkContext {
+    
+    private static final int SEED_BATCH = 10_000;
+    
+    private BenchmarkContext() {
+    }
+    
+    /**
+     * Start an application context with an empty task table
+     * @param properties additional Spring properties ("key=value")
+     * @return running application context; close it in the benchmark tear-down
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        Map<String, String> all = new LinkedHashMap<>();
+        for (String property : List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "todo.recent-index.verify-interval-ms=3600000",
+                "logging.level.root=WARN",
+                "logging.level.com.todo=WARN")) {
+            put(all, property);
+        }
+        // Later values replace the defaults; a repeated argument would be joined with a comma
+        for (String property : properties) {
+            put(all, property);
+        }
+        // Passed as arguments so they take precedence over application.properties
+        return new SpringApplicationBuilder(TodoBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+    
+    private static void put(Map<String, String> properties, String property) {
+        int separator = property.indexOf('=');
+        properties.put(property.substring(0, separator), property.substring(separator + 1));
+    }
+    
+    /**
+     * Insert tasks through the JDBC batch path; every third task is completed
+     * @param context running application context
+     * @param rows number of tasks to insert
+     */
+    public static void seedTasks(ConfigurableApplicationContext context, int rows) {
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        for (int from = 0; from < rows; from += SEED_BATCH) {
+            int to = Math.min(from + SEED_BATCH, rows);
+            List<Task> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                Task task = new Task();
+                task.setTitle("Benchmark task " + i);
+                task.setDescription("Description of benchmark task " + i);
+                task.setCompleted(i % 3 == 0);
+                batch.add(task);
+            }
+            taskRepository.insertAll(batch);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.todo.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request logging overhead on the calling thread. {@code legacyRequest}
+ * issues the log statements of a page read and a task creation as they were
+ * written before the production logging profile (INFO per request, unguarded
+ * DEBUG); {@code guardedRequest} issues them as they are written now. Run
+ * with {@code -prof gc} to compare allocation rates.
+ * <ul>
+ *   <li>{@code sync-pattern}: the previous default, synchronous pattern
+ *   output with com.todo at DEBUG</li>
+ *   <li>{@code async-json}: the prod profile, JSON output behind a
+ *   non-blocking AsyncAppender with com.todo at INFO</li>
+ * </ul>
+ * Output goes to a discarding stream so the terminal does not dominate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestLoggingBenchmark {
+    
+    @Param({"sync-pattern", "async-json"})
+    String config;
+    
+    private LoggerContext loggerContext;
+    private Logger log;
+    
+    private final int limit = 20;
+    private final String view = "FULL";
+    private final String after = null;
+    private final String title = "Benchmark task";
+    private final Long id = 42L;
+    
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        loggerContext.start();
+        log = loggerContext.getLogger("com.todo.controller.TaskController");
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        if ("sync-pattern".equals(config)) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} - %msg%n");
+            root.addAppender(start(outputAppender(encoder)));
+            loggerContext.getLogger("com.todo").setLevel(Level.DEBUG);
+        } else {
+            LogstashEncoder encoder = new LogstashEncoder();
+            encoder.setIncludeContext(false);
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(start(outputAppender(encoder)));
+            root.addAppender(start(async));
+            loggerContext.getLogger("com.todo").setLevel(Level.INFO);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+    
+    @Benchmark
+    public void legacyRequest() {
+        log.info("GET /api/tasks/page - Fetching page of {} tasks", limit);
+        log.debug("Fetching {} page of {} tasks after cursor {}", view, limit, after);
+        log.info("POST /api/tasks - Creating new task");
+        log.debug("Creating new task with title: {}", title);
+        log.info("Task created successfully with id: {}", id);
+    }
+    
+    @Benchmark
+    public void guardedRequest() {
+        if (log.isDebugEnabled()) {
+            log.debug("GET /api/tasks/page - Fetching page of {} tasks", limit);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching {} page of {} tasks after cursor {}", view, limit, after);
+        }
+        log.debug("POST /api/tasks - Creating new task");
+        log.debug("Creating new task with title: {}", title);
+        log.info("Task created successfully with id: {}", id);
+    }
+    
+    private OutputStreamAppender<ILoggingEvent> outputAppender(Encoder<ILoggingEvent> encoder) {
+        encoder.setContext(loggerContext);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        return appender;
+    }
+    
+    private <A extends Appender<ILoggingEvent>> A start(A appender) {
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,94 @@
+package com.todo.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todo.config.BinaryWireFormatConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Jackson encoding and decoding of task list responses in
+ * each negotiated wire format: JSON configured like the Spring Boot
+ * ObjectMapper (ISO dates), and Smile and CBOR with epoch-millis
+ * timestamps as served by BinaryWireFormatConfig. The encoded size of a
+ * response is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+    
+    @Param({"5", "100"})
+    int size;
+    
+    @Param({"json", "smile", "cbor"})
+    String format;
+    
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ApiResponse<List<TaskResponseDto>> response;
+    private byte[] encoded;
+    
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "smile" -> binaryMapper(new SmileFactory());
+            case "cbor" -> binaryMapper(new CBORFactory());
+            default -> new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        };
+        writer = objectMapper.writer();
+        reader = objectMapper.readerFor(new TypeReference<ApiResponse<List<TaskResponseDto>>>() { });
+        List<TaskResponseDto> tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 0; i < size; i++) {
+            tasks.add(new TaskResponseDto(i, "Benchmark task " + i,
+                    "Description of benchmark task " + i, false, now, now));
+        }
+        response = ApiResponse.success("Tasks retrieved successfully", tasks);
+        encoded = writer.writeValueAsBytes(response);
+        System.out.printf("%n%s, %d tasks: %d bytes%n", format, size, encoded.length);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public ApiResponse<List<TaskResponseDto>> deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+    
+    private static ObjectMapper binaryMapper(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .registerModule(BinaryWireFormatConfig.epochMillisModule());
+    }
+}
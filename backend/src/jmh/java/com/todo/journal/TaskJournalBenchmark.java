@@ -0,0 +1,87 @@
+package com.todo.journal;
+
+import com.todo.dto.TaskCreateDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Appends per second to the ingestion journal for each fsync policy. The
+ * journal is acknowledged every {@link #ACKNOWLEDGE_EVERY} appends, as the
+ * ingestion writer does after a batch, so full segments are deleted and
+ * the disk does not fill up. Set {@code TODO_BENCHMARK_JOURNAL_DIR} to
+ * measure a specific device; the default temporary directory may be tmpfs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskJournalBenchmark {
+
+    private static final int ACKNOWLEDGE_EVERY = 500;
+
+    @Param({"per-write", "interval", "os"})
+    String fsync;
+
+    private Path directory;
+    private TaskJournal journal;
+    private ScheduledExecutorService flusher;
+    private TaskCreateDto task;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String parent = System.getenv("TODO_BENCHMARK_JOURNAL_DIR");
+        directory = parent == null
+                ? Files.createTempDirectory("task-journal")
+                : Files.createTempDirectory(Path.of(parent), "task-journal");
+        journal = new TaskJournal(true, directory, 16 * 1024 * 1024, TaskJournal.FsyncPolicy.from(fsync));
+        journal.recover();
+        // Same schedule as todo.ingest.journal.fsync-interval-ms; a no-op for the other policies
+        flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(journal::flush, 100, 100, TimeUnit.MILLISECONDS);
+        task = new TaskCreateDto("Benchmark task with a typical title",
+                "A short description of the benchmark task, about a hundred bytes long in UTF-8.");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        flusher.shutdown();
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        long sequence = journal.append(task);
+        journal.sync(sequence);
+        if (sequence % ACKNOWLEDGE_EVERY == 0) {
+            journal.acknowledge(sequence);
+        }
+        return sequence;
+    }
+}
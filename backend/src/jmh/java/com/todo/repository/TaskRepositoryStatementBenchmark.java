@@ -0,0 +1,107 @@
+package com.todo.repository;
+
+import com.todo.benchmark.BenchmarkContext;
+import com.todo.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the TaskRepository read queries on MySQL with the driver's
+ * defaults (client-side statements, no statement cache) and with the
+ * {@code prod} profile's server-side prepared statement cache. Needs a MySQL
+ * server; the benchmark creates its own schema there:
+ * TODO_BENCHMARK_MYSQL_URL (default: the docker-compose server, database
+ * {@code todobench}), TODO_BENCHMARK_MYSQL_USER and
+ * TODO_BENCHMARK_MYSQL_PASSWORD.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TaskRepositoryStatementBenchmark {
+    
+    private static final List<String> SERVER_CACHED = List.of(
+            "cachePrepStmts=true", "prepStmtCacheSize=250", "prepStmtCacheSqlLimit=2048",
+            "useServerPrepStmts=true", "useLocalSessionState=true", "cacheResultSetMetadata=true",
+            "cacheServerConfiguration=true", "elideSetAutoCommits=true", "maintainTimeStats=false");
+    
+    @Param({"100000"})
+    int rows;
+    
+    /**
+     * client: Connector/J defaults; server-cached: the prod profile settings
+     */
+    @Param({"client", "server-cached"})
+    String statements;
+    
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private Task middle;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + env("TODO_BENCHMARK_MYSQL_URL",
+                        "jdbc:mysql://localhost:3306/todobench?createDatabaseIfNotExist=true&rewriteBatchedStatements=true"),
+                "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+                "spring.datasource.username=" + env("TODO_BENCHMARK_MYSQL_USER", "root"),
+                "spring.datasource.password=" + env("TODO_BENCHMARK_MYSQL_PASSWORD", "rootpassword"),
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+                "spring.datasource.hikari.maximum-pool-size=8"));
+        if ("server-cached".equals(statements)) {
+            SERVER_CACHED.forEach(setting -> properties.add("spring.datasource.hikari.data-source-properties." + setting));
+        }
+        context = BenchmarkContext.start(properties.toArray(String[]::new));
+        BenchmarkContext.seedTasks(context, rows);
+        taskRepository = context.getBean(TaskRepository.class);
+        middle = taskRepository.findFirstPage(PageRequest.of(rows / 2, 1)).get(0);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Optional<Task> findById() {
+        return taskRepository.findById(middle.getId() + ThreadLocalRandom.current().nextLong(-1_000, 1_000));
+    }
+    
+    @Benchmark
+    public Optional<TaskSummary> findSummaryById() {
+        return taskRepository.findSummaryById(middle.getId() + ThreadLocalRandom.current().nextLong(-1_000, 1_000));
+    }
+    
+    @Benchmark
+    public List<TaskSummary> findPageSummariesAfter() {
+        return taskRepository.findPageSummariesAfter(middle.getCreatedAt(), middle.getId(), PageRequest.of(0, 20));
+    }
+    
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,99 @@
+package com.todo.service;
+
+import com.todo.dto.TaskResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of the in-memory task index over synthetic tasks whose
+ * words follow a Zipf-like distribution. Sample mode reports p99.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TaskSearchIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ru", "sa", "ti", "vo", "be", "du"};
+    private static final int VOCABULARY = 50_000;
+
+    @Param({"1000000"})
+    int tasks;
+
+    /**
+     * frequent: a term in about 15% of the tasks; rare: a term in about 0.2%;
+     * mixed: a common and an uncommon term; prefix: a three-letter prefix
+     */
+    @Param({"frequent", "rare", "mixed", "prefix"})
+    String query;
+
+    private TaskSearchIndex index;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        index = new TaskSearchIndex(null);
+        SplittableRandom random = new SplittableRandom(42);
+        List<TaskResponseDto> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= tasks; id++) {
+            TaskResponseDto task = new TaskResponseDto();
+            task.setId(id);
+            task.setTitle(sentence(random, 3 + random.nextInt(4)));
+            task.setDescription(sentence(random, 8 + random.nextInt(16)));
+            batch.add(task);
+            if (batch.size() == 10_000) {
+                index.addAll(batch);
+                batch = new ArrayList<>(10_000);
+            }
+        }
+        index.addAll(batch);
+        text = switch (query) {
+            case "frequent" -> word(10);
+            case "rare" -> word(5_000);
+            case "mixed" -> word(20) + " " + word(2_000);
+            case "prefix" -> word(3).substring(0, 3);
+            default -> throw new IllegalArgumentException(query);
+        };
+    }
+
+    @Benchmark
+    public TaskSearchIndex.Hits search() {
+        return index.search(text, 0, 20);
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            // Inverse transform of a 1/x density gives a Zipf-like rank
+            int rank = (int) Math.min(VOCABULARY - 1, Math.exp(random.nextDouble() * Math.log(VOCABULARY)) - 1);
+            sentence.append(word(rank)).append(' ');
+        }
+        return sentence.toString();
+    }
+
+    private static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int value = rank;
+        do {
+            word.append(SYLLABLES[value % SYLLABLES.length]);
+            value /= SYLLABLES.length;
+        } while (value > 0);
+        return word.append(SYLLABLES[rank % 7]).toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.todo.service;
+
+import com.todo.benchmark.BenchmarkContext;
+import com.todo.dto.TaskCreateDto;
+import com.todo.dto.TaskResponseDto;
+import com.todo.model.Task;
+import com.todo.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the TaskService hot paths against H2
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TaskServiceBenchmark {
+    
+    /**
+     * Task entity for the DTO conversion benchmark
+     */
+    @State(Scope.Thread)
+    public static class EntityState {
+        Task task;
+        
+        @Setup
+        public void setUp() {
+            task = new Task(42L, "Benchmark task", "Description of the benchmark task", false,
+                    LocalDateTime.now(), LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * Application context with a seeded task table
+     */
+    @State(Scope.Benchmark)
+    public static class SeededState {
+        @Param({"10000", "1000000"})
+        int rows;
+        
+        ConfigurableApplicationContext context;
+        TaskService taskService;
+        TaskRepository taskRepository;
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start();
+            BenchmarkContext.seedTasks(context, rows);
+            taskService = context.getBean(TaskService.class);
+            taskRepository = context.getBean(TaskRepository.class);
+            context.getBean(RecentTasksIndex.class).rebuild();
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+    
+    /**
+     * Application context with an empty task table for write benchmarks
+     */
+    @State(Scope.Benchmark)
+    public static class WriteState {
+        ConfigurableApplicationContext context;
+        TaskService taskService;
+        TaskCreateDto taskCreateDto = new TaskCreateDto("Benchmark task", "Description of the benchmark task");
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start();
+            taskService = context.getBean(TaskService.class);
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public TaskResponseDto convertToDto(EntityState state) {
+        return TaskService.convertToDto(state.task);
+    }
+    
+    /** Served from the recent tasks cache and index */
+    @Benchmark
+    public List<TaskResponseDto> getRecentTasks(SeededState state) {
+        return state.taskService.getRecentTasks();
+    }
+    
+    /** The query the recent tasks index replaces, for comparison */
+    @Benchmark
+    public List<Task> findRecentIncompleteTasksQuery(SeededState state) {
+        return state.taskRepository.findRecentIncompleteTasks(PageRequest.of(0, TaskService.MAX_RECENT_TASKS));
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public TaskResponseDto createTask(WriteState state) {
+        return state.taskService.createTask(state.taskCreateDto);
+    }
+}
@@ -2,11 +2,13 @@ package com.todo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot Application class
  */
 @SpringBootApplication
+@EnableScheduling
 public class TodoBackendApplication {
     
     public static void main(String[] args) {
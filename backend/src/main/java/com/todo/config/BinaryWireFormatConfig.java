@@ -0,0 +1,84 @@
+package com.todo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Binary wire formats for API clients that send {@code Accept:
+ * application/x-jackson-smile} or {@code application/cbor}. Responses keep
+ * the JSON shape, but timestamps are epoch milliseconds instead of ISO
+ * strings. JSON stays the default for every other Accept header.
+ */
+@Configuration
+public class BinaryWireFormatConfig implements WebMvcConfigurer {
+    
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+    
+    public BinaryWireFormatConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+    
+    /**
+     * Replace Spring's default Smile and CBOR converters, which ignore the
+     * application's Jackson settings, with ones built like the JSON mapper
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.build()
+                .copyWith(new SmileFactory())
+                .registerModule(epochMillisModule())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.build()
+                .copyWith(new CBORFactory())
+                .registerModule(epochMillisModule())));
+    }
+    
+    /**
+     * Jackson module writing LocalDateTime as epoch milliseconds in the
+     * system time zone, in which the application creates its timestamps.
+     * Reading also accepts ISO strings.
+     * @return module
+     */
+    public static SimpleModule epochMillisModule() {
+        SimpleModule module = new SimpleModule("EpochMillisModule");
+        module.addSerializer(LocalDateTime.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                    throws IOException {
+                generator.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        });
+        module.addDeserializer(LocalDateTime.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                    return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneId.systemDefault());
+                }
+                return LocalDateTimeDeserializer.INSTANCE.deserialize(parser, context);
+            }
+        });
+        return module;
+    }
+}
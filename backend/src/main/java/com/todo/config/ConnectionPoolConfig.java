@@ -0,0 +1,52 @@
+package com.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Connection pool sizing. With {@code todo.datasource.pool.auto-size=true}, a
+ * Hikari pool without an explicit {@code maximum-pool-size} gets
+ * {@code cores * 2 + effective spindles} connections, HikariCP's suggested
+ * starting point. Cores are those of the database server
+ * ({@code todo.datasource.pool.db-cores}, 0 = the processors of this host).
+ */
+@Configuration
+public class ConnectionPoolConfig {
+    
+    @Bean
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        boolean enabled = environment.getProperty("todo.datasource.pool.auto-size", Boolean.class, false);
+        int dbCores = environment.getProperty("todo.datasource.pool.db-cores", Integer.class, 0);
+        int spindles = environment.getProperty("todo.datasource.pool.effective-spindles", Integer.class, 1);
+        return new HikariPoolSizer(enabled, dbCores > 0 ? dbCores : Runtime.getRuntime().availableProcessors(), spindles);
+    }
+    
+    /**
+     * Applies the derived size to pools after their configuration properties are bound
+     */
+    @Slf4j
+    static final class HikariPoolSizer implements BeanPostProcessor {
+        
+        private final boolean enabled;
+        private final int poolSize;
+        
+        HikariPoolSizer(boolean enabled, int cores, int spindles) {
+            this.enabled = enabled;
+            this.poolSize = cores * 2 + Math.max(spindles, 0);
+        }
+        
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // An unset maximum is -1 until the pool starts; an explicit setting always wins
+            if (enabled && bean instanceof HikariDataSource pool && pool.getMaximumPoolSize() < 1) {
+                pool.setMaximumPoolSize(poolSize);
+                log.info("Sized connection pool of bean '{}' to {} connections", beanName, poolSize);
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Startup self-check of the connection pools: logs the effective pool and
+ * driver statement-cache settings once the application is ready, warns when
+ * a MySQL pool runs without prepared statement caching, and exposes the same
+ * settings under {@code connectionPools} on {@code /actuator/info}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConnectionPoolReport implements InfoContributor {
+    
+    /** MySQL Connector/J settings that affect statement and round-trip costs */
+    static final List<String> DRIVER_SETTINGS = List.of(
+            "cachePrepStmts", "prepStmtCacheSize", "prepStmtCacheSqlLimit", "useServerPrepStmts",
+            "useLocalSessionState", "rewriteBatchedStatements", "cacheResultSetMetadata",
+            "cacheServerConfiguration", "elideSetAutoCommits", "maintainTimeStats", "useCursorFetch");
+    
+    private final ObjectProvider<HikariDataSource> pools;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void logSettings() {
+        pools.orderedStream().forEach(pool -> {
+            Map<String, Object> settings = describe(pool);
+            log.info("Connection pool {}: {}", pool.getPoolName(), settings);
+            if (isMySql(pool) && !"true".equals(driverSettings(pool).get("cachePrepStmts"))) {
+                log.warn("Connection pool {} does not cache prepared statements; set cachePrepStmts and "
+                        + "useServerPrepStmts in spring.datasource.hikari.data-source-properties", pool.getPoolName());
+            }
+        });
+    }
+    
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        pools.orderedStream().forEach(pool -> details.put(pool.getPoolName(), describe(pool)));
+        builder.withDetail("connectionPools", details);
+    }
+    
+    /**
+     * Effective settings of a pool; credentials and the URL are left out
+     */
+    static Map<String, Object> describe(HikariDataSource pool) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("maximumPoolSize", pool.getMaximumPoolSize());
+        settings.put("minimumIdle", pool.getMinimumIdle());
+        settings.put("connectionTimeoutMs", pool.getConnectionTimeout());
+        settings.put("idleTimeoutMs", pool.getIdleTimeout());
+        settings.put("maxLifetimeMs", pool.getMaxLifetime());
+        settings.put("leakDetectionThresholdMs", pool.getLeakDetectionThreshold());
+        settings.put("readOnly", pool.isReadOnly());
+        settings.put("driver", driverSettings(pool));
+        return settings;
+    }
+    
+    /**
+     * Driver settings from the data source properties, overridden by the
+     * JDBC URL's query parameters as Connector/J does
+     */
+    static Map<String, String> driverSettings(HikariDataSource pool) {
+        Properties properties = pool.getDataSourceProperties();
+        Map<String, String> url = urlParameters(pool.getJdbcUrl());
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (String name : DRIVER_SETTINGS) {
+            String value = url.getOrDefault(name, properties.getProperty(name));
+            if (value != null) {
+                settings.put(name, value);
+            }
+        }
+        return settings;
+    }
+    
+    private static Map<String, String> urlParameters(String jdbcUrl) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        int query = jdbcUrl == null ? -1 : jdbcUrl.indexOf('?');
+        if (query < 0) {
+            return parameters;
+        }
+        for (String parameter : jdbcUrl.substring(query + 1).split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+            }
+        }
+        return parameters;
+    }
+    
+    private static boolean isMySql(HikariDataSource pool) {
+        return pool.getJdbcUrl() != null && pool.getJdbcUrl().startsWith("jdbc:mysql:");
+    }
+}
@@ -0,0 +1,212 @@
+package com.todo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.ApiResponse;
+import com.todo.service.TaskVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Limits concurrent API requests to the size of the connection pool when
+ * requests run on virtual threads. Without a platform thread pool to bound
+ * concurrency, every request would otherwise queue inside HikariCP and time
+ * out there; this rejects excess load early with 503 instead.
+ * <p>
+ * Only the endpoints that use the database take a permit. The recent list,
+ * stats, ingestion status and the event stream are served from memory, and
+ * so are list pages whose entity tag still matches. An export keeps its
+ * permit until its asynchronous response completes, as it keeps its
+ * connection that long.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+    
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final List<DatabaseEndpoint> DATABASE_ENDPOINTS = List.of(
+            new DatabaseEndpoint("GET", "/api/tasks/page"),
+            new DatabaseEndpoint("GET", "/api/tasks/search"),
+            new DatabaseEndpoint("GET", "/api/tasks/export"),
+            new DatabaseEndpoint("GET", "/api/tasks/\\d+"),
+            new DatabaseEndpoint("POST", "/api/tasks"),
+            new DatabaseEndpoint("POST", "/api/tasks/bulk"),
+            new DatabaseEndpoint("PUT", "/api/tasks/complete"),
+            new DatabaseEndpoint("PUT", "/api/tasks/\\d+/complete"),
+            new DatabaseEndpoint("DELETE", "/api/tasks"),
+            new DatabaseEndpoint("DELETE", "/api/tasks/\\d+"));
+    
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long acquireTimeoutMillis;
+    private final ObjectMapper objectMapper;
+    private final TaskVersion taskVersion;
+    private final LongAdder rejected = new LongAdder();
+    
+    @Autowired
+    public DatabaseConcurrencyLimitFilter(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            TaskVersion taskVersion,
+            @Value("${todo.virtual-threads.max-concurrent-requests:0}") int maxConcurrentRequests,
+            @Value("${todo.virtual-threads.acquire-timeout-ms:2000}") long acquireTimeoutMillis) {
+        this(maxConcurrentRequests > 0 ? maxConcurrentRequests : poolSize(dataSource),
+                acquireTimeoutMillis, objectMapper, taskVersion);
+    }
+    
+    DatabaseConcurrencyLimitFilter(int maxConcurrentRequests, long acquireTimeoutMillis, ObjectMapper objectMapper,
+                                   TaskVersion taskVersion) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.objectMapper = objectMapper;
+        this.taskVersion = taskVersion;
+        log.info("Limiting concurrent database-bound API requests to {} on virtual threads", maxConcurrentRequests);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        if (DATABASE_ENDPOINTS.stream().noneMatch(endpoint -> endpoint.matches(method, path))) {
+            return true;
+        }
+        // Answered with 304 from the task version, as the controller does
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        return path.equals("/api/tasks/page") && ifNoneMatch != null
+                && ifNoneMatch.contains("\"" + taskVersion.getETag() + "\"");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Rejecting {} {} - all {} request permits in use",
+                    request.getMethod(), request.getRequestURI(), maxConcurrentRequests);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Server is busy, please retry"));
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                permits.release();
+            }
+        }
+    }
+    
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.request_limiter.available", permits, Semaphore::availablePermits)
+                .description("Request permits currently available")
+                .register(registry);
+        FunctionCounter.builder("todo.request_limiter.rejected", this, DatabaseConcurrencyLimitFilter::getRejectedCount)
+                .description("Requests rejected because all permits were in use")
+                .register(registry);
+    }
+    
+    private record DatabaseEndpoint(String method, Pattern path) {
+        
+        DatabaseEndpoint(String method, String path) {
+            this(method, Pattern.compile(path));
+        }
+        
+        boolean matches(String requestMethod, String requestPath) {
+            return method.equals(requestMethod) && path.matcher(requestPath).matches();
+        }
+    }
+    
+    /**
+     * Releases the permit of an asynchronous request once, however it ends
+     */
+    private final class ReleaseOnCompletion implements AsyncListener {
+        
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new cycle of the same request keeps the permit
+            event.getAsyncContext().addListener(this);
+        }
+        
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+    
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            log.warn("Could not determine connection pool size: {}", ex.getMessage());
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,38 @@
+package com.todo.config;
+
+import com.todo.journal.TaskJournal;
+import com.todo.repository.TaskStore;
+import com.todo.storage.EmbeddedTaskRepository;
+import com.todo.storage.EmbeddedTaskStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Path;
+
+/**
+ * Embedded task storage, active when {@code todo.storage.engine=embedded}.
+ * The store's adapter is the primary {@link TaskStore}, so every task
+ * consumer uses it; the JPA TaskRepository stays registered alongside it
+ * but is no longer used for tasks.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.storage.engine", havingValue = "embedded")
+public class EmbeddedStorageConfig {
+
+    @Bean
+    public EmbeddedTaskStore embeddedTaskStore(
+            @Value("${todo.storage.embedded.dir:data}") String directory,
+            @Value("${todo.storage.embedded.fsync:interval}") String fsync,
+            @Value("${todo.storage.embedded.snapshot-min-changes:10000}") long snapshotMinChanges) {
+        return new EmbeddedTaskStore(Path.of(directory), TaskJournal.FsyncPolicy.from(fsync), snapshotMinChanges);
+    }
+
+    @Bean
+    @Primary
+    public TaskStore embeddedTaskRepository(EmbeddedTaskStore embeddedTaskStore) {
+        return new EmbeddedTaskRepository(embeddedTaskStore);
+    }
+}
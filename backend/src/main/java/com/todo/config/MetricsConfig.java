@@ -0,0 +1,21 @@
+package com.todo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics configuration. Controller endpoints and repository queries are
+ * timed by Spring Boot (http.server.requests and
+ * spring.data.repository.invocations); service methods annotated with
+ * {@code @Timed} are timed by the aspect registered here.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.todo.config;
+
+import com.todo.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read/write split, active when {@code todo.datasource.replicas.urls} lists
+ * at least one replica. The primary pool is built from
+ * {@code spring.datasource.*} as usual; read-only transactions are routed to
+ * the replicas by {@link ReplicaRoutingDataSource}, and a client's reads go
+ * to the primary for a while after its own writes.
+ */
+@Configuration
+@ConditionalOnExpression("!'${todo.datasource.replicas.urls:}'.isBlank()")
+@Slf4j
+public class ReplicaDataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            @Value("${todo.datasource.replicas.urls}") String urls,
+            @Value("${todo.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${todo.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${todo.datasource.replicas.selection:round-robin}") String selection,
+            @Value("${todo.datasource.replicas.connection-timeout-ms:1000}") long connectionTimeoutMillis) {
+        List<ReplicaRoutingDataSource.NamedDataSource> replicas = new ArrayList<>();
+        for (String url : Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList()) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName(name);
+            if (primaryDataSource.getMaximumPoolSize() > 0) {
+                replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            // Fail over quickly instead of waiting for the pool's default 30 s
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            // Start even when a replica is down; it joins once a health check passes
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            // Same statement caching and leak detection as the primary
+            replica.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replica.setLeakDetectionThreshold(primaryDataSource.getLeakDetectionThreshold());
+            replica.setMaxLifetime(primaryDataSource.getMaxLifetime());
+            replicas.add(new ReplicaRoutingDataSource.NamedDataSource(name, replica));
+        }
+        log.info("Routing read-only transactions to {} replica(s) by {}", replicas.size(), selection);
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, ReplicaRoutingDataSource.Selection.from(selection));
+    }
+    
+    /**
+     * The data source used by JPA and JDBC. Fetching the connection is
+     * deferred to the first statement, when the read-only flag of the
+     * transaction is known and the routing decision can be made.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+    
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${todo.datasource.read-your-writes-window-ms:5000}") long windowMillis) {
+        return new ReadYourWritesFilter(windowMillis);
+    }
+}
@@ -1,16 +1,37 @@
 package com.todo.controller;
 
 import com.todo.dto.ApiResponse;
+import com.todo.dto.TaskBulkItemResultDto;
+import com.todo.dto.TaskBulkResultDto;
 import com.todo.dto.TaskCreateDto;
+import com.todo.dto.TaskIngestStatusDto;
+import com.todo.dto.TaskPageDto;
 import com.todo.dto.TaskResponseDto;
+import com.todo.dto.TaskSearchResultDto;
+import com.todo.dto.TaskStatsDto;
+import com.todo.dto.TaskView;
+import com.todo.exception.ResourceNotFoundException;
+import com.todo.exception.ServiceUnavailableException;
+import com.todo.service.TaskEventBroadcaster;
+import com.todo.service.TaskExportService;
+import com.todo.service.TaskIngestQueue;
 import com.todo.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,34 +41,180 @@ import java.util.List;
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = {"http://localhost", "http://localhost:80", "http://localhost:5173"})
+@CrossOrigin(origins = {"http://localhost", "http://localhost:80", "http://localhost:5173"}, allowCredentials = "true")
 public class TaskController {
     
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskIngestQueue taskIngestQueue;
     
     /**
-     * Get the most recent 5 incomplete tasks
+     * Get the most recent 5 incomplete tasks; view=summary omits descriptions.
+     * Answers 304 without touching the database when If-None-Match matches.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<TaskResponseDto>>> getRecentTasks() {
-        log.info("GET /api/tasks - Fetching recent tasks");
-        List<TaskResponseDto> tasks = taskService.getRecentTasks();
-        return ResponseEntity.ok(
-            ApiResponse.success("Tasks retrieved successfully", tasks)
-        );
+    public ResponseEntity<ApiResponse<List<TaskResponseDto>>> getRecentTasks(
+            @RequestParam(defaultValue = "full") String view,
+            WebRequest request) {
+        log.debug("GET /api/tasks - Fetching recent tasks");
+        TaskView taskView = TaskView.from(view);
+        if (request.checkNotModified(weakETag(taskService.getTasksETag()))) {
+            return null;
+        }
+        List<TaskResponseDto> tasks = taskView == TaskView.SUMMARY
+                ? taskService.getRecentTaskSummaries()
+                : taskService.getRecentTasks();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(ApiResponse.success("Tasks retrieved successfully", tasks));
+    }
+    
+    /**
+     * Get a page of tasks (newest first) using an opaque keyset cursor;
+     * view=summary omits descriptions. Answers 304 without touching the
+     * database when If-None-Match matches.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<TaskPageDto>> getTasksPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "full") String view,
+            WebRequest request) {
+        if (log.isDebugEnabled()) {
+            log.debug("GET /api/tasks/page - Fetching page of {} tasks", limit);
+        }
+        TaskView taskView = TaskView.from(view);
+        if (request.checkNotModified(weakETag(taskService.getTasksETag()))) {
+            return null;
+        }
+        TaskPageDto page = taskService.getTasksPage(after, limit, taskView);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(ApiResponse.success("Tasks retrieved successfully", page));
+    }
+    
+    /**
+     * Search task titles and descriptions, best match first. Every term
+     * must match; the last term also matches as a prefix.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<TaskSearchResultDto>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("GET /api/tasks/search - Searching tasks");
+        TaskSearchResultDto result = taskService.searchTasks(q, page, size);
+        return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", result));
+    }
+    
+    /**
+     * Get task counts by state. Served from in-memory counters, so the cost
+     * does not grow with the table.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<TaskStatsDto>> getTaskStats() {
+        log.debug("GET /api/tasks/stats - Fetching task statistics");
+        TaskStatsDto stats = taskService.getTaskStats();
+        return ResponseEntity.ok(ApiResponse.success("Task statistics retrieved successfully", stats));
+    }
+    
+    /**
+     * Export tasks as newline-delimited JSON, streamed row by row
+     */
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        log.debug("GET /api/tasks/export - Exporting tasks");
+        StreamingResponseBody body = out -> taskExportService.exportTasks(completed, since, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+    
+    /**
+     * Stream task created/completed/deleted events as Server-Sent Events.
+     * Clients resume with Last-Event-ID; a reset event asks them to reload.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTaskEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("GET /api/tasks/stream - Opening change feed");
+        return taskEventBroadcaster.subscribe(lastEventId)
+                .map(emitter -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        // Disable response buffering in reverse proxies such as nginx
+                        .header("X-Accel-Buffering", "no")
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
     }
     
     /**
-     * Create a new task
+     * Create a new task. With ingestion enabled the task is queued for the
+     * next group commit and 202 returns a tracking ID; durable=true waits
+     * for the commit and answers like the synchronous path.
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<TaskResponseDto>> createTask(
-            @Valid @RequestBody TaskCreateDto taskCreateDto) {
-        log.info("POST /api/tasks - Creating new task");
-        TaskResponseDto task = taskService.createTask(taskCreateDto);
+    public ResponseEntity<ApiResponse<?>> createTask(
+            @Valid @RequestBody TaskCreateDto taskCreateDto,
+            @RequestParam(defaultValue = "false") boolean durable) {
+        log.debug("POST /api/tasks - Creating new task");
+        if (!taskIngestQueue.isEnabled()) {
+            TaskResponseDto task = taskService.createTask(taskCreateDto);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Task created successfully", task));
+        }
+        
+        TaskIngestQueue.Ticket ticket = taskIngestQueue.submit(taskCreateDto);
+        TaskIngestStatusDto status = durable
+                ? taskIngestQueue.await(ticket)
+                : new TaskIngestStatusDto(ticket.getId(), TaskIngestStatusDto.Status.PENDING, null, null);
+        return switch (status.getStatus()) {
+            case CREATED -> ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Task created successfully", status.getTask()));
+            case PENDING -> ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/tasks/ingest/" + status.getTrackingId()))
+                    .body(ApiResponse.success("Task accepted for creation", status));
+            // The request was validated already, so a failure is the batch's statement failing
+            case FAILED -> throw new ServiceUnavailableException("Task could not be stored, retry the request");
+        };
+    }
+    
+    /**
+     * Get the state of a task accepted by the ingestion queue
+     */
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<ApiResponse<TaskIngestStatusDto>> getIngestStatus(@PathVariable String trackingId) {
+        log.debug("GET /api/tasks/ingest/{} - Fetching ingestion status", trackingId);
+        TaskIngestStatusDto status = taskIngestQueue.getStatus(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException("No queued task with tracking id: " + trackingId));
+        return ResponseEntity.ok(ApiResponse.success("Ingestion status retrieved successfully", status));
+    }
+    
+    /**
+     * Create many tasks in one request; invalid items are reported per item
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<List<TaskBulkItemResultDto>>> createTasks(
+            @RequestBody List<TaskCreateDto> taskCreateDtos) {
+        if (log.isDebugEnabled()) {
+            log.debug("POST /api/tasks/bulk - Creating {} tasks", taskCreateDtos.size());
+        }
+        List<TaskBulkItemResultDto> results = taskService.createTasks(taskCreateDtos);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Task created successfully", task));
+                .body(ApiResponse.success("Bulk task creation processed", results));
     }
     
     /**
@@ -56,7 +223,7 @@ public class TaskController {
     @PutMapping("/{id}/complete")
     public ResponseEntity<ApiResponse<TaskResponseDto>> completeTask(
             @PathVariable Long id) {
-        log.info("PUT /api/tasks/{}/complete - Marking task as completed", id);
+        log.debug("PUT /api/tasks/{}/complete - Marking task as completed", id);
         TaskResponseDto task = taskService.markTaskAsCompleted(id);
         return ResponseEntity.ok(
             ApiResponse.success("Task marked as completed", task)
@@ -64,15 +231,51 @@ public class TaskController {
     }
     
     /**
-     * Get a task by ID
+     * Mark many tasks as completed in one set-based operation
+     */
+    @PutMapping("/complete")
+    public ResponseEntity<ApiResponse<TaskBulkResultDto>> completeTasks(
+            @RequestBody List<Long> taskIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("PUT /api/tasks/complete - Marking {} tasks as completed", taskIds.size());
+        }
+        TaskBulkResultDto result = taskService.completeTasks(taskIds);
+        return ResponseEntity.ok(
+            ApiResponse.success("Tasks marked as completed", result)
+        );
+    }
+    
+    /**
+     * Get a task by ID. Answers 304 after a lookup of the update time alone
+     * when If-None-Match matches.
      */
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<TaskResponseDto>> getTaskById(
-            @PathVariable Long id) {
-        log.info("GET /api/tasks/{} - Fetching task", id);
+            @PathVariable Long id,
+            WebRequest request) {
+        log.debug("GET /api/tasks/{} - Fetching task", id);
+        if (request.checkNotModified(weakETag(taskService.getTaskETag(id)))) {
+            return null;
+        }
         TaskResponseDto task = taskService.getTaskById(id);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(ApiResponse.success("Task retrieved successfully", task));
+    }
+    
+    /**
+     * Delete many tasks in one set-based operation
+     */
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<TaskBulkResultDto>> deleteTasks(
+            @RequestBody List<Long> taskIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("DELETE /api/tasks - Deleting {} tasks", taskIds.size());
+        }
+        TaskBulkResultDto result = taskService.deleteTasks(taskIds);
         return ResponseEntity.ok(
-            ApiResponse.success("Task retrieved successfully", task)
+            ApiResponse.success("Tasks deleted successfully", result)
         );
     }
     
@@ -81,10 +284,18 @@ public class TaskController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteTask(@PathVariable Long id) {
-        log.info("DELETE /api/tasks/{} - Deleting task", id);
+        log.debug("DELETE /api/tasks/{} - Deleting task", id);
         taskService.deleteTask(id);
         return ResponseEntity.ok(
             ApiResponse.success("Task deleted successfully", null)
         );
     }
+    
+    /**
+     * Weak entity tag: the same tag covers every encoding and format of a
+     * response, and Tomcat only compresses responses without a strong one
+     */
+    private static String weakETag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
 }
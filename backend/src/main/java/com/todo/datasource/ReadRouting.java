@@ -0,0 +1,79 @@
+package com.todo.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing hints for {@link ReplicaRoutingDataSource}.
+ * <p>
+ * A request scope keeps the read-only transactions of one request on the
+ * same replica, so that e.g. an entity tag and the body it describes come
+ * from the same copy of the data, and pins a client's reads to the primary
+ * right after its own writes. Code that must see the latest committed state,
+ * such as the maintenance of the in-memory indexes, pins its reads to the
+ * primary explicitly. Without replicas configured these hints have no effect.
+ */
+public final class ReadRouting {
+    
+    private static final ThreadLocal<int[]> PRIMARY_PINS = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+    
+    private ReadRouting() {
+    }
+    
+    /**
+     * Run an action whose read-only transactions must use the primary
+     * @param action action to run
+     * @return result of the action
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        int[] pins = PRIMARY_PINS.get();
+        pins[0]++;
+        try {
+            return action.get();
+        } finally {
+            pins[0]--;
+        }
+    }
+    
+    /**
+     * Whether read-only transactions on this thread must use the primary
+     */
+    public static boolean isPrimaryPinned() {
+        Scope scope = SCOPE.get();
+        return PRIMARY_PINS.get()[0] > 0 || (scope != null && scope.primaryPinned);
+    }
+    
+    /**
+     * Open the routing scope of a request; close it when the request ends
+     * @param primaryPinned whether all reads of the request must use the primary
+     * @return the scope
+     */
+    public static Scope openScope(boolean primaryPinned) {
+        Scope scope = new Scope(primaryPinned);
+        SCOPE.set(scope);
+        return scope;
+    }
+    
+    static Scope currentScope() {
+        return SCOPE.get();
+    }
+    
+    /**
+     * Routing state of one request
+     */
+    public static final class Scope implements AutoCloseable {
+        
+        private final boolean primaryPinned;
+        /** Replica chosen by the first read of the request, or -1 */
+        int replica = -1;
+        
+        private Scope(boolean primaryPinned) {
+            this.primaryPinned = primaryPinned;
+        }
+        
+        @Override
+        public void close() {
+            SCOPE.remove();
+        }
+    }
+}
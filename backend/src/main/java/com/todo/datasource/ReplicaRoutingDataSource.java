@@ -0,0 +1,290 @@
+package com.todo.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections of read-only transactions to read replicas and all
+ * others to the primary. It has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so that the connection is fetched at the first statement, once the
+ * transaction's read-only flag is known.
+ * <p>
+ * Replicas are picked round-robin or by fewest open connections. A replica
+ * that fails to hand out a connection is taken out of rotation until a
+ * health check finds it working again; while no replica is available reads
+ * fall back to the primary. {@link ReadRouting} pins reads to the primary
+ * and keeps a request on one replica.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * How a replica is picked for a read
+     */
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS;
+
+        /**
+         * Parse a configuration value such as {@code round-robin}
+         */
+        public static Selection from(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * @param primary data source for writes and pinned reads
+     * @param replicas data sources of the read replicas, keyed by name
+     * @param selection how a replica is picked
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<NamedDataSource> replicas, Selection selection) {
+        this.primary = primary;
+        this.selection = selection;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica(i, replicas.get(i).name(), replicas.get(i).dataSource()));
+        }
+    }
+
+    /**
+     * A replica data source with the name used in logs and metrics
+     */
+    public record NamedDataSource(String name, DataSource dataSource) {
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        if (ReadRouting.isPrimaryPinned()) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        return replicaConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are configured per data source; explicit ones only make sense for the primary
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Probe every replica and return the working ones to the rotation
+     */
+    @Scheduled(fixedDelayString = "${todo.datasource.replicas.health-check-interval-ms:5000}",
+               initialDelayString = "${todo.datasource.replicas.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown("connection is not valid");
+                }
+            } catch (SQLException ex) {
+                replica.markDown(ex.getMessage());
+            }
+        }
+    }
+
+    public int getAvailableReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.available).count();
+    }
+
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.datasource.replicas.available", this, ReplicaRoutingDataSource::getAvailableReplicaCount)
+                .description("Read replicas currently in rotation")
+                .register(registry);
+        FunctionCounter.builder("todo.datasource.reads", primaryReads, LongAdder::sum)
+                .description("Read-only connections handed out")
+                .tag("target", "primary")
+                .register(registry);
+        FunctionCounter.builder("todo.datasource.replica_fallbacks", this, ReplicaRoutingDataSource::getFallbackCount)
+                .description("Reads sent to the primary because no replica was available")
+                .register(registry);
+        for (Replica replica : replicas) {
+            FunctionCounter.builder("todo.datasource.reads", replica.reads, LongAdder::sum)
+                    .description("Read-only connections handed out")
+                    .tag("target", replica.name)
+                    .register(registry);
+            Gauge.builder("todo.datasource.replica.connections", replica.open, AtomicInteger::get)
+                    .description("Connections currently open on the replica")
+                    .tag("target", replica.name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        // Expose the primary pool, e.g. to size request limits by it
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    private Connection replicaConnection() throws SQLException {
+        ReadRouting.Scope scope = ReadRouting.currentScope();
+        if (scope != null && scope.replica >= 0) {
+            Replica sticky = replicas.get(scope.replica);
+            if (sticky.available) {
+                Connection connection = sticky.open();
+                if (connection != null) {
+                    return connection;
+                }
+            }
+        }
+        for (Replica replica : candidates()) {
+            Connection connection = replica.open();
+            if (connection != null) {
+                if (scope != null) {
+                    scope.replica = replica.index;
+                }
+                return connection;
+            }
+        }
+        fallbacks.increment();
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Available replicas in the order they should be tried
+     */
+    private List<Replica> candidates() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        List<Replica> ordered = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.available) {
+                ordered.add(replica);
+            }
+        }
+        if (selection == Selection.LEAST_CONNECTIONS) {
+            // Stable sort: ties keep the round-robin order
+            ordered.sort(Comparator.comparingInt(replica -> replica.open.get()));
+        }
+        return ordered;
+    }
+
+    /**
+     * A replica with its health and open connection count
+     */
+    private static final class Replica {
+        final int index;
+        final String name;
+        final DataSource dataSource;
+        final AtomicInteger open = new AtomicInteger();
+        final LongAdder reads = new LongAdder();
+        volatile boolean available = true;
+
+        Replica(int index, String name, DataSource dataSource) {
+            this.index = index;
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * @return a counted connection, or null when the replica failed and was taken out of rotation
+         */
+        Connection open() {
+            Connection connection;
+            try {
+                connection = dataSource.getConnection();
+            } catch (SQLException ex) {
+                markDown(ex.getMessage());
+                return null;
+            }
+            open.incrementAndGet();
+            reads.increment();
+            return counted(connection);
+        }
+
+        void markDown(String reason) {
+            if (available) {
+                available = false;
+                log.warn("Read replica {} taken out of rotation: {}", name, reason);
+            }
+        }
+
+        void markUp() {
+            if (!available) {
+                available = true;
+                log.info("Read replica {} back in rotation", name);
+            }
+        }
+
+        private Connection counted(Connection target) {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "close":
+                                if (closed.compareAndSet(false, true)) {
+                                    open.decrementAndGet();
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the outcome of one item of a bulk task request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkItemResultDto {
+    
+    private int index;
+    private boolean success;
+    private TaskResponseDto task;
+    private Map<String, String> errors;
+    
+    public static TaskBulkItemResultDto created(int index, TaskResponseDto task) {
+        return new TaskBulkItemResultDto(index, true, task, null);
+    }
+    
+    public static TaskBulkItemResultDto rejected(int index, Map<String, String> errors) {
+        return new TaskBulkItemResultDto(index, false, null, errors);
+    }
+}
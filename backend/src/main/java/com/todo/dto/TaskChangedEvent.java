@@ -0,0 +1,50 @@
+package com.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Data Transfer Object for a committed change to one or more tasks,
+ * published by the task write paths and pushed to change feed subscribers
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangedEvent {
+    
+    private Type type;
+    private List<Long> taskIds;
+    
+    /** The created task; only set when a single task was created */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TaskResponseDto task;
+    
+    public static TaskChangedEvent created(TaskResponseDto task) {
+        return new TaskChangedEvent(Type.CREATED, List.of(task.getId()), task);
+    }
+    
+    public static TaskChangedEvent of(Type type, List<Long> taskIds) {
+        return new TaskChangedEvent(type, List.copyOf(taskIds), null);
+    }
+    
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        CREATED,
+        COMPLETED,
+        DELETED;
+        
+        /**
+         * @return SSE event name, e.g. task-created
+         */
+        public String getEventName() {
+            return "task-" + name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -18,5 +18,7 @@ public class TaskCreateDto {
     @Size(max = 255, message = "Title must not exceed 255 characters")
     private String title;
     
+    // TEXT column: 65,535 bytes, at most 4 per character in utf8mb4
+    @Size(max = 16383, message = "Description must not exceed 16383 characters")
     private String description;
 }
@@ -0,0 +1,30 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the state of a task accepted by the ingestion queue
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskIngestStatusDto {
+    
+    public enum Status {
+        /** Queued or in a batch that has not committed yet */
+        PENDING,
+        /** Committed; the task is set */
+        CREATED,
+        /** Not stored; the errors say why */
+        FAILED
+    }
+    
+    private String trackingId;
+    private Status status;
+    private TaskResponseDto task;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,20 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a page of tasks in keyset order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageDto {
+    
+    private List<TaskResponseDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -1,5 +1,6 @@
 package com.todo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,7 +17,10 @@ public class TaskResponseDto {
     
     private Long id;
     private String title;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String description;
+    
     private Boolean completed;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
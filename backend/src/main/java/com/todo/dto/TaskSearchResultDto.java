@@ -0,0 +1,22 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a page of task search results, best match first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchResultDto {
+    
+    private List<TaskResponseDto> items;
+    private int total;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the task counts shown on the dashboard
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatsDto {
+    
+    private long total;
+    private long incomplete;
+    private long completed;
+}
@@ -0,0 +1,30 @@
+package com.todo.dto;
+
+import com.todo.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Level of detail for task list responses
+ */
+public enum TaskView {
+    
+    /** ID, title, completion state and timestamps; no description */
+    SUMMARY,
+    
+    /** All task fields */
+    FULL;
+    
+    /**
+     * Parse a view name case-insensitively
+     * @param value view name, e.g. "summary"
+     * @return matching view
+     */
+    public static TaskView from(String value) {
+        try {
+            return TaskView.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown view: " + value + " (expected summary or full)");
+        }
+    }
+}
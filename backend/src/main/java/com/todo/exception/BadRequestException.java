@@ -0,0 +1,15 @@
+package com.todo.exception;
+
+/**
+ * Custom exception for malformed client input that bean validation cannot express
+ */
+public class BadRequestException extends RuntimeException {
+    
+    public BadRequestException(String message) {
+        super(message);
+    }
+    
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.todo.exception;
+
+/**
+ * Custom exception for requests that cannot be served until the application has warmed up
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.todo.exception;
+
+/**
+ * Custom exception for requests rejected because a bounded queue is full
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,507 @@
+package com.todo.journal;
+
+import com.todo.dto.TaskCreateDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of tasks accepted by the ingestion queue but not yet
+ * committed to the database, so that they survive a crash.
+ * <p>
+ * Records are written to memory-mapped segment files of a fixed size in
+ * {@code todo.ingest.journal.dir}. Every record carries a sequence number
+ * and a CRC32C of its body; reading stops at the first zeroed or damaged
+ * record, which is where a torn write ends a segment. Once a batch has
+ * committed, an acknowledgement record is appended and segments holding
+ * only acknowledged tasks are deleted. On startup the tasks after the last
+ * acknowledgement are handed back for replay, so delivery is at least once:
+ * a crash between a commit and its acknowledgement replays that batch.
+ * <p>
+ * Mapped writes survive a crash of the process as soon as they are made;
+ * the fsync policy decides when they also survive a crash of the machine.
+ * Appends only copy the record under the lock. With {@code per-write},
+ * callers then wait in {@link #sync} outside it, where one force covers
+ * every record appended before it started, so concurrent appenders share
+ * their fsyncs.
+ */
+@Component
+@Slf4j
+public class TaskJournal implements MeterBinder {
+
+    public enum FsyncPolicy {
+        /** Force every record to disk before {@link #sync} returns */
+        PER_WRITE,
+        /** Force outstanding records every {@code fsync-interval-ms} */
+        INTERVAL,
+        /** Leave write-back to the operating system */
+        OS;
+
+        /**
+         * Parse a configuration value such as {@code per-write}
+         */
+        public static FsyncPolicy from(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * A journaled task that was not acknowledged
+     * @param sequence sequence number of the record
+     * @param task task creation data
+     */
+    public record Entry(long sequence, TaskCreateDto task) {
+    }
+
+    static final byte CREATE = 1;
+    static final byte ACKNOWLEDGE = 2;
+    /** Record length and CRC32C, both ints, before the body */
+    private static final int HEADER_BYTES = 8;
+    /** Record type and sequence number at the start of the body */
+    private static final int BODY_PREFIX_BYTES = 9;
+    private static final int MIN_SEGMENT_BYTES = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Serializes forces of the active segment; taken after the lock, never before it */
+    private final ReentrantLock forceLock = new ReentrantLock();
+    /** Full segments and segments found on startup, oldest first */
+    private final Deque<Segment> closed = new ArrayDeque<>();
+    private Segment active;
+    private long nextSequence = 1;
+    private long acknowledged;
+    private boolean recovered;
+    /** Sequence number up to which records are on disk; written under forceLock */
+    private volatile long syncedSequence;
+
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+
+    /**
+     * @throws IllegalArgumentException when the journal is enabled without an absolute directory
+     */
+    @Autowired
+    public TaskJournal(@Value("${todo.ingest.journal.enabled:false}") boolean enabled,
+                       @Value("${todo.ingest.journal.dir:}") String directory,
+                       @Value("${todo.ingest.journal.segment-bytes:16777216}") int segmentBytes,
+                       @Value("${todo.ingest.journal.fsync:interval}") String fsyncPolicy) {
+        this(enabled, journalDirectory(enabled, directory), segmentBytes, FsyncPolicy.from(fsyncPolicy));
+    }
+
+    public TaskJournal(boolean enabled, Path directory, int segmentBytes, FsyncPolicy fsyncPolicy) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentBytes = Math.max(segmentBytes, MIN_SEGMENT_BYTES);
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * Read the existing segments. Must be called once before appending;
+     * no file is created until the first append.
+     * @return tasks after the last acknowledgement, in sequence order
+     */
+    public List<Entry> recover() {
+        lock.lock();
+        try {
+            if (recovered) {
+                throw new IllegalStateException("Journal was already recovered");
+            }
+            recovered = true;
+            if (!enabled || !Files.isDirectory(directory)) {
+                return List.of();
+            }
+            TreeMap<Long, TaskCreateDto> tasks = new TreeMap<>();
+            for (Path path : segmentPaths()) {
+                closed.add(read(path, tasks));
+            }
+            tasks.headMap(acknowledged, true).clear();
+            deleteAcknowledgedSegments();
+            if (!tasks.isEmpty()) {
+                log.warn("Journal holds {} unacknowledged tasks after sequence {}", tasks.size(), acknowledged);
+            }
+            return tasks.entrySet().stream().map(entry -> new Entry(entry.getKey(), entry.getValue())).toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the task journal in " + directory, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append a task; with {@code per-write} it is on disk once {@link #sync} returned
+     * @param task task creation data
+     * @return sequence number of the record
+     * @throws IllegalArgumentException when the task does not fit into a segment
+     */
+    public long append(TaskCreateDto task) {
+        byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = task.getDescription() == null ? null
+                : task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int payloadBytes = 4 + title.length + 4 + (description == null ? 0 : description.length);
+        lock.lock();
+        try {
+            long sequence = nextSequence;
+            ByteBuffer record = writeRecord(CREATE, sequence, payloadBytes);
+            record.putInt(title.length).put(title);
+            if (description == null) {
+                record.putInt(-1);
+            } else {
+                record.putInt(description.length).put(description);
+            }
+            finishRecord(record);
+            active.lastTaskSequence = sequence;
+            appends.increment();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record that all tasks up to a sequence number are committed and
+     * delete the segments that hold nothing else
+     * @param sequence highest committed sequence number
+     */
+    public void acknowledge(long sequence) {
+        long recordSequence;
+        lock.lock();
+        try {
+            if (sequence <= acknowledged) {
+                return;
+            }
+            recordSequence = nextSequence;
+            ByteBuffer record = writeRecord(ACKNOWLEDGE, recordSequence, 8);
+            record.putLong(sequence);
+            finishRecord(record);
+            acknowledged = sequence;
+            deleteAcknowledgedSegments();
+        } finally {
+            lock.unlock();
+        }
+        sync(recordSequence);
+    }
+
+    /**
+     * Wait until a record is on disk when the per-write policy is used. Runs
+     * outside the append lock; a force already covering the record, made
+     * for a concurrent caller, is not repeated.
+     * @param sequence sequence number returned by {@link #append}
+     */
+    public void sync(long sequence) {
+        if (fsyncPolicy != FsyncPolicy.PER_WRITE || syncedSequence >= sequence) {
+            return;
+        }
+        Segment segment;
+        int position;
+        long upTo;
+        lock.lock();
+        try {
+            // Full segments were forced when they were rotated out
+            segment = active;
+            position = active.buffer.position();
+            upTo = nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+        forceLock.lock();
+        try {
+            if (syncedSequence < sequence) {
+                segment.force(position);
+                syncedSequence = Math.max(syncedSequence, upTo);
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Force outstanding records to disk when the interval policy is used
+     */
+    @Scheduled(fixedDelayString = "${todo.ingest.journal.fsync-interval-ms:100}")
+    public void flush() {
+        if (fsyncPolicy != FsyncPolicy.INTERVAL) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (active != null) {
+                active.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (active != null && fsyncPolicy != FsyncPolicy.OS) {
+                active.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAppendCount() {
+        return appends.sum();
+    }
+
+    public long getFsyncCount() {
+        return fsyncs.sum();
+    }
+
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return closed.size() + (active == null ? 0 : 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.ingest.journal.appends", this, TaskJournal::getAppendCount)
+                .description("Tasks appended to the ingestion journal")
+                .register(registry);
+        FunctionCounter.builder("todo.ingest.journal.fsyncs", this, TaskJournal::getFsyncCount)
+                .description("Forces of journal segments to disk")
+                .register(registry);
+        Gauge.builder("todo.ingest.journal.segments", this, TaskJournal::getSegmentCount)
+                .description("Journal segment files on disk")
+                .register(registry);
+    }
+
+    /**
+     * Resolve the configured directory; a relative one would put the journal
+     * wherever the process happens to start
+     */
+    private static Path journalDirectory(boolean enabled, String directory) {
+        if (!enabled) {
+            return Path.of(directory.isBlank() ? "." : directory);
+        }
+        if (directory.isBlank() || !Path.of(directory).isAbsolute()) {
+            throw new IllegalArgumentException(
+                    "todo.ingest.journal.dir must be an absolute path when the journal is enabled: '" + directory + "'");
+        }
+        return Path.of(directory);
+    }
+
+    /**
+     * Reserve a record in the active segment, rotating when it is full; must hold the lock
+     * @return buffer positioned at the payload, limited to the end of the record
+     */
+    private ByteBuffer writeRecord(byte type, long sequence, int payloadBytes) {
+        if (!recovered) {
+            throw new IllegalStateException("Journal must be recovered before appending");
+        }
+        int bodyBytes = BODY_PREFIX_BYTES + payloadBytes;
+        if (HEADER_BYTES + bodyBytes > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Task of " + payloadBytes + " bytes does not fit into a journal segment");
+        }
+        try {
+            // Leave room for a zero length after the last record, which marks the end
+            if (active == null || active.buffer.remaining() < HEADER_BYTES + bodyBytes + HEADER_BYTES) {
+                rotate();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create a journal segment in " + directory, ex);
+        }
+        MappedByteBuffer buffer = active.buffer;
+        int start = buffer.position();
+        ByteBuffer record = buffer.slice(start, HEADER_BYTES + bodyBytes);
+        record.position(HEADER_BYTES);
+        record.put(type).putLong(sequence);
+        nextSequence = sequence + 1;
+        return record;
+    }
+
+    /**
+     * Write the header of a filled record and advance the segment; must hold the lock
+     */
+    private void finishRecord(ByteBuffer record) {
+        int bodyBytes = record.limit() - HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(record.slice(HEADER_BYTES, bodyBytes));
+        // The length goes in last, so a record is never seen before its body and CRC are written
+        record.putInt(4, (int) crc.getValue());
+        record.putInt(0, bodyBytes);
+        int start = active.buffer.position();
+        active.buffer.position(start + record.limit());
+    }
+
+    private void rotate() throws IOException {
+        if (active != null) {
+            if (fsyncPolicy != FsyncPolicy.OS) {
+                active.force();
+            }
+            closed.add(active);
+        }
+        Files.createDirectories(directory);
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping extends the file to its full, zero-filled size
+            active = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+        log.debug("Opened journal segment {}", path);
+    }
+
+    private void deleteAcknowledgedSegments() {
+        for (Iterator<Segment> iterator = closed.iterator(); iterator.hasNext(); ) {
+            Segment segment = iterator.next();
+            if (segment.lastTaskSequence > acknowledged) {
+                continue;
+            }
+            try {
+                // A deleted file stays mapped until the buffer is collected
+                Files.deleteIfExists(segment.path);
+                iterator.remove();
+            } catch (IOException ex) {
+                log.warn("Could not delete journal segment {}: {}", segment.path, ex.getMessage());
+            }
+        }
+    }
+
+    private List<Path> segmentPaths() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Read the records of a segment up to the first empty or damaged one;
+     * must hold the lock
+     * @param tasks collects the tasks by sequence number
+     */
+    private Segment read(Path path, TreeMap<Long, TaskCreateDto> tasks) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        Segment segment = new Segment(path, buffer);
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int bodyBytes = buffer.getInt(start);
+            if (bodyBytes == 0) {
+                break;
+            }
+            if (bodyBytes < BODY_PREFIX_BYTES || bodyBytes > buffer.remaining() - HEADER_BYTES) {
+                log.warn("Journal segment {} ends in a damaged record at offset {}", path, start);
+                break;
+            }
+            ByteBuffer body = buffer.slice(start + HEADER_BYTES, bodyBytes);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+                log.warn("Journal segment {} ends in a record with a bad checksum at offset {}", path, start);
+                break;
+            }
+            byte type = body.get();
+            long sequence = body.getLong();
+            if (type == CREATE) {
+                tasks.put(sequence, new TaskCreateDto(readString(body), readString(body)));
+                segment.lastTaskSequence = Math.max(segment.lastTaskSequence, sequence);
+            } else if (type == ACKNOWLEDGE) {
+                acknowledged = Math.max(acknowledged, body.getLong());
+            }
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            buffer.position(start + HEADER_BYTES + bodyBytes);
+        }
+        return segment;
+    }
+
+    private static String readString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        /** Highest task sequence number in the segment, 0 when it holds none */
+        private long lastTaskSequence;
+        /** Guarded by forceLock */
+        private int forcedPosition;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Force the records written so far; must hold the lock
+         */
+        private void force() {
+            force(buffer.position());
+        }
+
+        private void force(int upTo) {
+            forceLock.lock();
+            try {
+                if (upTo > forcedPosition) {
+                    buffer.force(forcedPosition, upTo - forcedPosition);
+                    forcedPosition = upTo;
+                    fsyncs.increment();
+                }
+            } finally {
+                forceLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.todo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox Entity recording a committed task change for downstream systems.
+ * Rows are written in the same transaction as the change and published by
+ * the outbox relay; published rows are kept for the retention period as a
+ * change-data table.
+ */
+@Entity
+@Table(name = "task_outbox", indexes = {
+    @Index(name = "idx_outbox_published_at_id", columnList = "published_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+    
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    @ToString.Exclude
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
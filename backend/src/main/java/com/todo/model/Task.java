@@ -5,25 +5,34 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 /**
- * Task Entity representing a to-do task
+ * Task Entity representing a to-do task. Cached by ID in the second-level
+ * cache region {@value #CACHE_REGION}.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
 @Table(name = "task", indexes = {
     @Index(name = "idx_completed", columnList = "completed"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_created_at_id", columnList = "created_at, id")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
     
+    public static final String CACHE_REGION = "task";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -33,7 +42,10 @@ public class Task {
     @Column(nullable = false)
     private String title;
     
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String description;
     
     @Column(nullable = false)
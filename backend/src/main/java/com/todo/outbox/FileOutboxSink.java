@@ -0,0 +1,63 @@
+package com.todo.outbox;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends outbox events as newline-delimited JSON to a local file, a
+ * stand-in for a message broker that other processes can tail. Each
+ * batch is forced to disk before it is marked as published.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "file")
+@Slf4j
+public class FileOutboxSink implements OutboxSink {
+    
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Path path;
+    
+    public FileOutboxSink(@Value("${todo.outbox.file.path:outbox/task-events.ndjson}") String path) throws IOException {
+        this.path = Path.of(path);
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+        log.info("Writing outbox events to {}", this.path.toAbsolutePath());
+    }
+    
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                for (OutboxMessage message : messages) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", message.id());
+                    generator.writeStringField("type", message.type());
+                    generator.writeStringField("createdAt", message.createdAt().toString());
+                    generator.writeFieldName("payload");
+                    generator.writeRawValue(message.payload());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+            channel.force(false);
+        }
+    }
+}
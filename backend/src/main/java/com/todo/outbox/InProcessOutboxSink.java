@@ -0,0 +1,25 @@
+package com.todo.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes outbox events as application events to in-process
+ * {@code @EventListener} methods accepting {@link OutboxMessage}
+ */
+@Component
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InProcessOutboxSink implements OutboxSink {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,14 @@
+package com.todo.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event handed to an {@link OutboxSink}. Delivery is at least
+ * once, so consumers should de-duplicate by ID.
+ * @param id outbox event ID, increasing in insertion order (not necessarily commit order)
+ * @param type event type, e.g. task-created
+ * @param payload event as JSON
+ * @param createdAt time the event was recorded
+ */
+public record OutboxMessage(long id, String type, String payload, LocalDateTime createdAt) {
+}
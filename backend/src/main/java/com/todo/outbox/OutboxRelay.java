@@ -0,0 +1,139 @@
+package com.todo.outbox;
+
+import com.todo.datasource.ReadRouting;
+import com.todo.model.OutboxEvent;
+import com.todo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes outbox events to the configured sink in batches, in insertion
+ * (ID) order, off the request path. IDs are assigned when a row is
+ * inserted, so a transaction that commits after one that inserted later
+ * has its events relayed after higher IDs; consumers must not rely on IDs
+ * being delivered in ascending order. No event is skipped, because the
+ * relay selects unpublished rows rather than IDs above a high-water mark.
+ * After a burst the relay keeps draining full batches until it has caught
+ * up. A batch is marked as published only after the sink accepted it, so
+ * delivery is at least once. Run a single relay per database; the outbox
+ * is not partitioned between instances.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements MeterBinder {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final int batchSize;
+    private final Duration retention;
+    
+    private final ReentrantLock running = new ReentrantLock();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lagMillis;
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink outboxSink,
+                       @Value("${todo.outbox.batch-size:500}") int batchSize,
+                       @Value("${todo.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.batchSize = Math.max(batchSize, 1);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+    
+    /**
+     * Publish all pending events; overlapping runs are skipped
+     */
+    @Scheduled(fixedDelayString = "${todo.outbox.relay-interval-ms:250}")
+    public void relay() {
+        if (!running.tryLock()) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (Exception ex) {
+            failures.increment();
+            log.warn("Outbox relay failed, the batch will be retried: {}", ex.getMessage());
+        } finally {
+            running.unlock();
+        }
+    }
+    
+    /**
+     * Delete published events that are older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${todo.outbox.purge-interval-ms:3600000}",
+               initialDelayString = "${todo.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+    
+    public long getPublishedCount() {
+        return published.sum();
+    }
+    
+    public long getFailureCount() {
+        return failures.sum();
+    }
+    
+    /**
+     * @return age of the oldest event in the most recent batch, 0 when idle
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.outbox.published", this, OutboxRelay::getPublishedCount)
+                .description("Outbox events handed to the sink")
+                .register(registry);
+        FunctionCounter.builder("todo.outbox.failures", this, OutboxRelay::getFailureCount)
+                .description("Failed outbox relay runs")
+                .register(registry);
+        Gauge.builder("todo.outbox.lag", this, relay -> relay.getLagMillis() / 1000.0)
+                .description("Age of the oldest event in the most recent relay batch")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+    
+    private int relayBatch() throws Exception {
+        // A lagging replica would hand out events that were already published
+        List<OutboxEvent> batch = ReadRouting.onPrimary(
+                () -> outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize)));
+        if (batch.isEmpty()) {
+            lagMillis = 0;
+            return 0;
+        }
+        lagMillis = Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+        List<OutboxMessage> messages = batch.stream()
+                .map(event -> new OutboxMessage(event.getId(), event.getEventType(),
+                        event.getPayload(), event.getCreatedAt()))
+                .toList();
+        outboxSink.publish(messages);
+        outboxEventRepository.markPublished(messages.stream().map(OutboxMessage::id).toList(),
+                LocalDateTime.now());
+        published.add(messages.size());
+        return messages.size();
+    }
+}
@@ -0,0 +1,17 @@
+package com.todo.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events, selected with {@code todo.outbox.sink}
+ */
+public interface OutboxSink {
+    
+    /**
+     * Publish a batch of events in order. The batch is retried in full
+     * when this throws.
+     * @param messages events ordered by ID
+     * @throws Exception if the batch could not be published
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
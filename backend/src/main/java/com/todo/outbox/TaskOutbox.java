@@ -0,0 +1,97 @@
+package com.todo.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.TaskChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Appends task change events to the outbox table in the caller's
+ * transaction, so an event exists if and only if its change committed.
+ * Events of one transaction are buffered and written with a single JDBC
+ * batch just before commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOutbox {
+    
+    /** Keeps bulk events well below the payload column limit */
+    static final int MAX_IDS_PER_EVENT = 1_000;
+    private static final String INSERT_SQL =
+            "INSERT INTO task_outbox (event_type, payload, created_at) VALUES (?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Append an event to the outbox of the current transaction, or write it
+     * immediately when no transaction is active
+     * @param event task change
+     */
+    public void append(TaskChangedEvent event) {
+        List<Object[]> rows = toRows(event);
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Object[]> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, buffer);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskOutbox.this);
+                }
+            });
+            pending = buffer;
+        }
+        pending.addAll(rows);
+    }
+    
+    private List<Object[]> toRows(TaskChangedEvent event) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String type = event.getType().getEventName();
+        List<Long> taskIds = event.getTaskIds();
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        if (taskIds.size() <= MAX_IDS_PER_EVENT) {
+            return Collections.singletonList(new Object[] {type, serialize(event), now});
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int from = 0; from < taskIds.size(); from += MAX_IDS_PER_EVENT) {
+            List<Long> chunk = taskIds.subList(from, Math.min(from + MAX_IDS_PER_EVENT, taskIds.size()));
+            rows.add(new Object[] {type, serialize(TaskChangedEvent.of(event.getType(), chunk)), now});
+        }
+        return rows;
+    }
+    
+    private String serialize(TaskChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            // Fails the write: a change must not commit without its event
+            throw new IllegalStateException("Could not serialize task change event", ex);
+        }
+    }
+}
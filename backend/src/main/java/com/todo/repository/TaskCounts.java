@@ -0,0 +1,11 @@
+package com.todo.repository;
+
+/**
+ * Projection of the task table's row counts
+ */
+public interface TaskCounts {
+    
+    long getTotal();
+    
+    long getIncomplete();
+}
@@ -1,30 +1,191 @@
 package com.todo.repository;
 
 import com.todo.model.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
- * Repository interface for Task entity
+ * Repository interface for Task entity and the JPA {@link TaskStore}.
+ * Task.description is lazily loaded; queries that serve full task views
+ * fetch it in the same select through an entity graph. The JPQL bulk
+ * statements make Hibernate evict the whole Task cache region and
+ * invalidate cached task queries when the transaction completes.
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom, TaskStore {
+    
+    String SUMMARY_COLUMNS =
+            "t.id AS id, t.title AS title, t.completed AS completed, "
+            + "t.createdAt AS createdAt, t.updatedAt AS updatedAt";
+    
+    String COUNT_CACHE_REGION = "task-counts";
+    
+    /**
+     * Find a task by ID, including its description
+     * @param id task ID
+     * @return task
+     */
+    @Override
+    @EntityGraph(attributePaths = "description")
+    Optional<Task> findById(Long id);
+    
+    /**
+     * Save a task; declared here so that calls resolve against both the
+     * CrudRepository and the TaskStore declarations
+     * @param task task to save
+     * @return saved task
+     */
+    @Override
+    <S extends Task> S save(S task);
     
     /**
      * Find incomplete tasks ordered by creation date descending
      * @param pageable pagination information
      * @return list of incomplete tasks
      */
-    @Query("SELECT t FROM Task t WHERE t.completed = false ORDER BY t.createdAt DESC")
+    @EntityGraph(attributePaths = "description")
+    @Query("SELECT t FROM Task t WHERE t.completed = false ORDER BY t.createdAt DESC, t.id DESC")
     List<Task> findRecentIncompleteTasks(Pageable pageable);
     
     /**
-     * Count incomplete tasks
+     * Find the first page of tasks in keyset order (newest first)
+     * @param pageable page size; the offset is always zero
+     * @return list of tasks
+     */
+    @EntityGraph(attributePaths = "description")
+    @Query("SELECT t FROM Task t ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findFirstPage(Pageable pageable);
+    
+    /**
+     * Find the first page of task summaries in keyset order (newest first)
+     * @param pageable page size; the offset is always zero
+     * @return list of task summaries
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Task t ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskSummary> findFirstPageSummaries(Pageable pageable);
+    
+    /**
+     * Find the tasks that follow the given keyset position (newest first)
+     * @param createdAt creation date of the last task on the previous page
+     * @param id ID of the last task on the previous page
+     * @param pageable page size; the offset is always zero
+     * @return list of tasks
+     */
+    @EntityGraph(attributePaths = "description")
+    @Query("SELECT t FROM Task t WHERE t.createdAt < :createdAt "
+            + "OR (t.createdAt = :createdAt AND t.id < :id) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                             @Param("id") Long id,
+                             Pageable pageable);
+    
+    /**
+     * Find the task summaries that follow the given keyset position (newest first)
+     * @param createdAt creation date of the last task on the previous page
+     * @param id ID of the last task on the previous page
+     * @param pageable page size; the offset is always zero
+     * @return list of task summaries
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Task t WHERE t.createdAt < :createdAt "
+            + "OR (t.createdAt = :createdAt AND t.id < :id) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskSummary> findPageSummariesAfter(@Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+    
+    /**
+     * Stream tasks in ID order for export. The JDBC driver fetches rows in
+     * chunks so the result is never materialized as a whole; the caller must
+     * close the stream inside a transaction.
+     * @param completed completion state to match, or null for all tasks
+     * @param since lower bound (inclusive) on the last update, or null for all tasks
+     * @return stream of tasks
+     */
+    @EntityGraph(attributePaths = "description")
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t WHERE (:completed IS NULL OR t.completed = :completed) "
+            + "AND (:since IS NULL OR t.updatedAt >= :since) ORDER BY t.id")
+    Stream<Task> streamForExport(@Param("completed") Boolean completed,
+                                 @Param("since") LocalDateTime since);
+    
+    /**
+     * Find a task by ID without loading its description
+     * @param id task ID
+     * @return task summary projection
+     */
+    Optional<TaskSummary> findSummaryById(Long id);
+    
+    /**
+     * Find tasks by ID without loading their descriptions
+     * @param ids task IDs
+     * @return task summary projections in no particular order
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Task t WHERE t.id IN :ids")
+    List<TaskSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Mark incomplete tasks as completed in a single statement
+     * @param ids task IDs
+     * @param updatedAt update timestamp to set
+     * @return number of tasks that changed state
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = true, t.updatedAt = :updatedAt "
+            + "WHERE t.id IN :ids AND t.completed = false")
+    int completeAllByIdIn(@Param("ids") Collection<Long> ids,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Delete tasks in a single statement
+     * @param ids task IDs
+     * @return number of deleted tasks
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Delete the incomplete tasks among the given ones in a single statement
+     * @param ids task IDs
+     * @return number of deleted tasks
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids AND t.completed = false")
+    int deleteIncompleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Count incomplete tasks. The result is kept in the query cache region
+     * {@value #COUNT_CACHE_REGION} until a write to the task table.
      * @return count of incomplete tasks
      */
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = COUNT_CACHE_REGION)
+    })
     long countByCompletedFalse();
+    
+    /**
+     * Count all and incomplete tasks in one pass, bypassing the query cache
+     * @return task counts
+     */
+    @Query("SELECT COUNT(t) AS total, "
+            + "COALESCE(SUM(CASE WHEN t.completed = false THEN 1 ELSE 0 END), 0) AS incomplete FROM Task t")
+    TaskCounts countTasks();
 }
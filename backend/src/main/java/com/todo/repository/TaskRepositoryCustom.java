@@ -0,0 +1,40 @@
+package com.todo.repository;
+
+import com.todo.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom repository operations for Task entity that bypass the persistence
+ * context. Writes evict what they change from the second-level cache, which
+ * Hibernate cannot see through plain JDBC.
+ */
+public interface TaskRepositoryCustom {
+    
+    /**
+     * Insert new tasks with JDBC batch statements. IDENTITY key generation
+     * prevents Hibernate from batching inserts, so rows are written directly
+     * and the generated IDs and timestamps are set on the given tasks.
+     * @param tasks transient tasks to insert
+     * @return the same tasks with IDs and timestamps populated
+     */
+    List<Task> insertAll(List<Task> tasks);
+    
+    /**
+     * Mark an incomplete task as completed in a single statement. Unlike a
+     * JPQL bulk update, which makes Hibernate drop the whole Task cache
+     * region, only this task's cache entry is evicted.
+     * @param id task ID
+     * @param updatedAt update timestamp to set
+     * @return 1 if the task changed state, otherwise 0
+     */
+    int completeIfIncomplete(Long id, LocalDateTime updatedAt);
+    
+    /**
+     * Read the searchable text of every task in ID order with a forward-only
+     * JDBC cursor, without building entities or a persistence context
+     * @param consumer receives the ID, title and description of each task
+     */
+    void forEachTaskText(TaskStore.TaskTextConsumer consumer);
+}
@@ -0,0 +1,136 @@
+package com.todo.repository;
+
+import com.todo.model.Task;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link TaskRepositoryCustom}
+ */
+@Slf4j
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO task (title, description, completed, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String COMPLETE_SQL =
+            "UPDATE task SET completed = TRUE, updated_at = ? WHERE id = ? AND completed = FALSE";
+    private static final String TEXT_SQL = "SELECT id, title, description FROM task ORDER BY id";
+    private static final int TEXT_FETCH_SIZE = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+    
+    public TaskRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                    EntityManagerFactory entityManagerFactory,
+                                    @Value("${todo.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+    
+    @Override
+    public List<Task> insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < tasks.size(); from += batchSize) {
+                    List<Task> batch = tasks.subList(from, Math.min(from + batchSize, tasks.size()));
+                    for (Task task : batch) {
+                        ps.setString(1, task.getTitle());
+                        ps.setString(2, task.getDescription());
+                        ps.setBoolean(3, Boolean.TRUE.equals(task.getCompleted()));
+                        ps.setTimestamp(4, timestamp);
+                        ps.setTimestamp(5, timestamp);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Task task : batch) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Missing generated key for batch insert");
+                            }
+                            task.setId(keys.getLong(1));
+                            task.setCreatedAt(now);
+                            task.setUpdatedAt(now);
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        evictAfterWrite(null);
+        if (log.isDebugEnabled()) {
+            log.debug("Inserted {} tasks in batches of {}", tasks.size(), batchSize);
+        }
+        return tasks;
+    }
+    
+    @Override
+    public int completeIfIncomplete(Long id, LocalDateTime updatedAt) {
+        int updated = jdbcTemplate.update(COMPLETE_SQL, Timestamp.valueOf(updatedAt), id);
+        if (updated > 0) {
+            evictAfterWrite(id);
+        }
+        return updated;
+    }
+    
+    @Override
+    public void forEachTaskText(TaskStore.TaskTextConsumer consumer) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(TEXT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(TEXT_FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(rs.getLong(1), rs.getString(2), rs.getString(3));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Evict a changed task and the cached task queries now and again when
+     * the transaction completes, so that a concurrent read cannot cache the
+     * row as it was before the commit
+     * @param id changed task, or null when only new rows were written
+     */
+    private void evictAfterWrite(Long id) {
+        Runnable evict = () -> {
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            if (id != null) {
+                cache.evictEntityData(Task.class, id);
+            }
+            cache.evictQueryRegion(TaskRepository.COUNT_CACHE_REGION);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
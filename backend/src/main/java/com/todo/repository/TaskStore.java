@@ -0,0 +1,156 @@
+package com.todo.repository;
+
+import com.todo.model.Task;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The task operations the services use, implemented by the JPA
+ * {@link TaskRepository} and by the embedded storage engine. Pages are
+ * always newest first, ordered by creation date and then ID.
+ */
+public interface TaskStore {
+    
+    /**
+     * Insert a new task or update an existing one
+     * @param task task to store
+     * @return the stored task, with its ID and timestamps set
+     */
+    <S extends Task> S save(S task);
+    
+    /**
+     * Insert new tasks
+     * @param tasks transient tasks to insert
+     * @return the same tasks with IDs and timestamps populated
+     */
+    List<Task> insertAll(List<Task> tasks);
+    
+    /**
+     * Find a task by ID, including its description
+     * @param id task ID
+     * @return task
+     */
+    Optional<Task> findById(Long id);
+    
+    /**
+     * Find all tasks, including their descriptions
+     * @return list of tasks
+     */
+    List<Task> findAll();
+    
+    /**
+     * Find incomplete tasks, newest first
+     * @param pageable page size; the offset is always zero
+     * @return list of incomplete tasks
+     */
+    List<Task> findRecentIncompleteTasks(Pageable pageable);
+    
+    /**
+     * Find the first page of tasks
+     * @param pageable page size; the offset is always zero
+     * @return list of tasks
+     */
+    List<Task> findFirstPage(Pageable pageable);
+    
+    /**
+     * Find the first page of task summaries
+     * @param pageable page size; the offset is always zero
+     * @return list of task summaries
+     */
+    List<TaskSummary> findFirstPageSummaries(Pageable pageable);
+    
+    /**
+     * Find the tasks that follow the given keyset position
+     * @param createdAt creation date of the last task on the previous page
+     * @param id ID of the last task on the previous page
+     * @param pageable page size; the offset is always zero
+     * @return list of tasks
+     */
+    List<Task> findPageAfter(LocalDateTime createdAt, Long id, Pageable pageable);
+    
+    /**
+     * Find the task summaries that follow the given keyset position
+     * @param createdAt creation date of the last task on the previous page
+     * @param id ID of the last task on the previous page
+     * @param pageable page size; the offset is always zero
+     * @return list of task summaries
+     */
+    List<TaskSummary> findPageSummariesAfter(LocalDateTime createdAt, Long id, Pageable pageable);
+    
+    /**
+     * Stream tasks in ID order for export; the caller must close the stream
+     * @param completed completion state to match, or null for all tasks
+     * @param since lower bound (inclusive) on the last update, or null for all tasks
+     * @return stream of tasks
+     */
+    Stream<Task> streamForExport(Boolean completed, LocalDateTime since);
+    
+    /**
+     * Read the searchable text of every task in ID order
+     * @param consumer receives the ID, title and description of each task
+     */
+    void forEachTaskText(TaskTextConsumer consumer);
+    
+    /**
+     * Find a task by ID without its description
+     * @param id task ID
+     * @return task summary
+     */
+    Optional<TaskSummary> findSummaryById(Long id);
+    
+    /**
+     * Find tasks by ID without their descriptions
+     * @param ids task IDs
+     * @return task summaries in no particular order
+     */
+    List<TaskSummary> findSummariesByIdIn(Collection<Long> ids);
+    
+    /**
+     * Mark an incomplete task as completed
+     * @param id task ID
+     * @param updatedAt update timestamp to set
+     * @return 1 if the task changed state, otherwise 0
+     */
+    int completeIfIncomplete(Long id, LocalDateTime updatedAt);
+    
+    /**
+     * Mark incomplete tasks as completed
+     * @param ids task IDs
+     * @param updatedAt update timestamp to set
+     * @return number of tasks that changed state
+     */
+    int completeAllByIdIn(Collection<Long> ids, LocalDateTime updatedAt);
+    
+    /**
+     * Delete tasks
+     * @param ids task IDs
+     * @return number of deleted tasks
+     */
+    int deleteAllByIdIn(Collection<Long> ids);
+    
+    /**
+     * Delete the incomplete tasks among the given ones
+     * @param ids task IDs
+     * @return number of deleted tasks
+     */
+    int deleteIncompleteByIdIn(Collection<Long> ids);
+    
+    /**
+     * Count all and incomplete tasks, bypassing any cache
+     * @return task counts
+     */
+    TaskCounts countTasks();
+    
+    /**
+     * Receiver of searchable task text
+     */
+    @FunctionalInterface
+    interface TaskTextConsumer {
+        void accept(long id, String title, String description);
+    }
+}
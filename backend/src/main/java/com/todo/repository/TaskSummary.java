@@ -0,0 +1,19 @@
+package com.todo.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed projection of Task without the description column
+ */
+public interface TaskSummary {
+    
+    Long getId();
+    
+    String getTitle();
+    
+    Boolean getCompleted();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getUpdatedAt();
+}
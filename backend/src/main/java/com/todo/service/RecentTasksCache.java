@@ -0,0 +1,152 @@
+package com.todo.service;
+
+import com.todo.dto.TaskResponseDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the recent incomplete tasks list.
+ * The cached list is patched or invalidated by the task write paths,
+ * so repeated reads are served without a database round trip.
+ */
+@Component
+@Slf4j
+public class RecentTasksCache implements MeterBinder {
+
+    static final Comparator<TaskResponseDto> NEWEST_FIRST = Comparator
+            .comparing(TaskResponseDto::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TaskResponseDto::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final int maxSize;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile List<TaskResponseDto> snapshot;
+
+    public RecentTasksCache() {
+        this(TaskService.MAX_RECENT_TASKS);
+    }
+
+    RecentTasksCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return the cached list, loading it with the given loader on a miss
+     * @param loader loads the current list from the source of truth
+     * @return immutable list of task response DTOs
+     */
+    public List<TaskResponseDto> get(Supplier<List<TaskResponseDto>> loader) {
+        List<TaskResponseDto> cached = snapshot;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        List<TaskResponseDto> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            // A write that landed while loading may not be reflected in the result
+            if (generation.get() == loadGeneration && snapshot == null) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Patch the cached list with a newly created task
+     * @param task created task
+     */
+    public synchronized void onTaskCreated(TaskResponseDto task) {
+        generation.incrementAndGet();
+        List<TaskResponseDto> cached = snapshot;
+        if (cached == null) {
+            return;
+        }
+        List<TaskResponseDto> patched = new ArrayList<>(cached.size() + 1);
+        // A concurrent miss may have loaded the list with this task already in it
+        for (TaskResponseDto entry : cached) {
+            if (!entry.getId().equals(task.getId())) {
+                patched.add(entry);
+            }
+        }
+        patched.add(task);
+        patched.sort(NEWEST_FIRST);
+        if (patched.size() > maxSize) {
+            patched.subList(maxSize, patched.size()).clear();
+        }
+        snapshot = List.copyOf(patched);
+    }
+
+    /**
+     * Drop the cached list if it contains a task that is no longer incomplete
+     * @param taskId completed or deleted task ID
+     */
+    public synchronized void onTaskRemoved(Long taskId) {
+        generation.incrementAndGet();
+        List<TaskResponseDto> cached = snapshot;
+        if (cached != null && cached.stream().anyMatch(task -> taskId.equals(task.getId()))) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Drop the cached list unconditionally
+     */
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        if (snapshot != null) {
+            snapshot = null;
+            evictions.increment();
+            log.debug("Recent tasks cache invalidated");
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+    
+    public int size() {
+        List<TaskResponseDto> cached = snapshot;
+        return cached == null ? 0 : cached.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.recent_tasks.cache", this, RecentTasksCache::getHitCount)
+                .tag("result", "hit")
+                .description("Recent tasks cache lookups")
+                .register(registry);
+        FunctionCounter.builder("todo.recent_tasks.cache", this, RecentTasksCache::getMissCount)
+                .tag("result", "miss")
+                .description("Recent tasks cache lookups")
+                .register(registry);
+        FunctionCounter.builder("todo.recent_tasks.cache.evictions", this, RecentTasksCache::getEvictionCount)
+                .description("Recent tasks cache invalidations")
+                .register(registry);
+        Gauge.builder("todo.recent_tasks.cache.size", this, RecentTasksCache::size)
+                .description("Entries held by the recent tasks cache")
+                .register(registry);
+    }
+}
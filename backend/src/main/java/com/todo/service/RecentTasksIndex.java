@@ -0,0 +1,296 @@
+package com.todo.service;
+
+import com.todo.datasource.ReadRouting;
+import com.todo.dto.TaskResponseDto;
+import com.todo.model.Task;
+import com.todo.repository.TaskStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory index of the newest incomplete tasks, ordered by creation date
+ * and then ID, both descending. It is loaded once from the repository and
+ * then maintained incrementally by the task write paths. Reads go to an
+ * immutable snapshot and never take a lock.
+ */
+@Component
+@Slf4j
+public class RecentTasksIndex implements MeterBinder {
+
+    private static final TaskResponseDto[] EMPTY = new TaskResponseDto[0];
+
+    private final TaskStore taskStore;
+    private final RecentTasksCache recentTasksCache;
+    private final TaskVersion taskVersion;
+    private final Function<Task, TaskResponseDto> mapper;
+    private final int capacity;
+
+    /** Guards the mutable state below; not a monitor so virtual threads are not pinned during reloads */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<TaskResponseDto> entries = new TreeSet<>(RecentTasksCache.NEWEST_FIRST);
+    private final Map<Long, TaskResponseDto> entriesById = new HashMap<>();
+    /** Whether the index holds every incomplete task, not just the newest ones */
+    private boolean exhaustive;
+    private volatile TaskResponseDto[] snapshot;
+
+    @Autowired
+    public RecentTasksIndex(TaskStore taskStore,
+                            RecentTasksCache recentTasksCache,
+                            TaskVersion taskVersion,
+                            @Value("${todo.recent-index.capacity:50}") int capacity) {
+        this(taskStore, recentTasksCache, taskVersion, TaskService::convertToDto, capacity);
+    }
+
+    RecentTasksIndex(TaskStore taskStore, RecentTasksCache recentTasksCache, TaskVersion taskVersion,
+                     Function<Task, TaskResponseDto> mapper, int capacity) {
+        this.taskStore = taskStore;
+        this.recentTasksCache = recentTasksCache;
+        this.taskVersion = taskVersion;
+        this.mapper = mapper;
+        this.capacity = Math.max(capacity, TaskService.MAX_RECENT_TASKS);
+    }
+
+    /**
+     * Load the index once the application is ready to serve requests
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Get the newest incomplete tasks
+     * @param limit maximum number of tasks to return
+     * @return immutable list of task response DTOs
+     */
+    public List<TaskResponseDto> getRecentTasks(int limit) {
+        TaskResponseDto[] current = snapshot;
+        if (current == null) {
+            current = reload();
+        }
+        return List.of(Arrays.copyOf(current, Math.min(limit, current.length)));
+    }
+
+    /**
+     * Add a newly created incomplete task
+     * @param task created task
+     */
+    public void onTaskCreated(TaskResponseDto task) {
+        lock.lock();
+        try {
+            if (snapshot == null || Boolean.TRUE.equals(task.getCompleted())) {
+                return;
+            }
+            put(task);
+            trim();
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a batch of newly created incomplete tasks
+     * @param tasks created tasks
+     */
+    public void onTasksCreated(List<TaskResponseDto> tasks) {
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                return;
+            }
+            tasks.stream()
+                    .filter(task -> !Boolean.TRUE.equals(task.getCompleted()))
+                    .forEach(this::put);
+            trim();
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove a task that was completed or deleted
+     * @param taskId task ID
+     */
+    public void onTaskRemoved(Long taskId) {
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                return;
+            }
+            if (remove(taskId)) {
+                refill();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove a batch of tasks that were completed or deleted
+     * @param taskIds task IDs
+     */
+    public void onTasksRemoved(Collection<Long> taskIds) {
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                return;
+            }
+            boolean removed = false;
+            for (Long taskId : taskIds) {
+                removed |= remove(taskId);
+            }
+            if (removed) {
+                refill();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reload the index from the repository. The lock is held across the
+     * query so that write-path updates are applied on top of the new state.
+     */
+    public void rebuild() {
+        lock.lock();
+        try {
+            reload();
+            recentTasksCache.invalidate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discard the index so that the next read reloads it from the repository
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            entries.clear();
+            entriesById.clear();
+            snapshot = null;
+            recentTasksCache.invalidate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compare the head of the index with the repository and rebuild on drift,
+     * e.g. after rows were changed outside of the service write paths
+     */
+    @Scheduled(fixedDelayString = "${todo.recent-index.verify-interval-ms:60000}",
+               initialDelayString = "${todo.recent-index.verify-interval-ms:60000}")
+    public void verify() {
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                return;
+            }
+            List<Long> expected = ReadRouting.onPrimary(() -> taskStore
+                            .findRecentIncompleteTasks(PageRequest.of(0, TaskService.MAX_RECENT_TASKS)))
+                    .stream()
+                    .map(Task::getId)
+                    .toList();
+            List<Long> actual = getRecentTasks(TaskService.MAX_RECENT_TASKS).stream()
+                    .map(TaskResponseDto::getId)
+                    .toList();
+            if (!expected.equals(actual)) {
+                log.warn("Recent tasks index drifted from the database, rebuilding");
+                rebuild();
+                // Cached list responses were built from the stale index
+                taskVersion.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        TaskResponseDto[] current = snapshot;
+        return current == null ? 0 : current.length;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.recent_tasks.index.size", this, RecentTasksIndex::size)
+                .description("Entries held by the recent tasks index")
+                .register(registry);
+    }
+
+    private TaskResponseDto[] reload() {
+        lock.lock();
+        try {
+            // The index is maintained from committed writes; a lagging replica would roll it back
+            List<Task> tasks = ReadRouting.onPrimary(
+                    () -> taskStore.findRecentIncompleteTasks(PageRequest.of(0, capacity)));
+            entries.clear();
+            entriesById.clear();
+            tasks.stream().map(mapper).forEach(this::put);
+            exhaustive = tasks.size() < capacity;
+            publish();
+            log.debug("Recent tasks index loaded with {} entries", entries.size());
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(TaskResponseDto task) {
+        TaskResponseDto previous = entriesById.put(task.getId(), task);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        entries.add(task);
+    }
+
+    private boolean remove(Long taskId) {
+        TaskResponseDto removed = entriesById.remove(taskId);
+        if (removed == null) {
+            return false;
+        }
+        entries.remove(removed);
+        return true;
+    }
+
+    private void refill() {
+        if (entries.size() < TaskService.MAX_RECENT_TASKS && !exhaustive) {
+            // Older tasks beyond the index window may now belong in the top N
+            rebuild();
+            return;
+        }
+        publish();
+    }
+
+    private void trim() {
+        while (entries.size() > capacity) {
+            entriesById.remove(entries.pollLast().getId());
+            exhaustive = false;
+        }
+    }
+
+    private void publish() {
+        snapshot = entries.isEmpty() ? EMPTY : entries.toArray(EMPTY);
+    }
+}
@@ -0,0 +1,199 @@
+package com.todo.service;
+
+import com.todo.datasource.ReadRouting;
+import com.todo.dto.TaskStatsDto;
+import com.todo.repository.TaskCounts;
+import com.todo.repository.TaskStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory counts of all and incomplete tasks. They are seeded once from the
+ * repository and then adjusted by the task write paths after each commit, so
+ * reading them never touches the database.
+ * <p>
+ * A periodic reconciliation counts the table again and adds the difference,
+ * which corrects rows changed outside the service. A pass is skipped when a
+ * write path adjusted the counters while the table was being counted, since
+ * the count may or may not include that write. The check and the correction
+ * hold off adjustments, so none can land between them.
+ * <p>
+ * Adjustments run after commit, so a write committed before the count but
+ * adjusted after the pass is counted twice; the next pass corrects it.
+ */
+@Component
+@Slf4j
+public class TaskCounters implements MeterBinder {
+
+    private static final int SEED_ATTEMPTS = 3;
+
+    private final TaskStore taskStore;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder incomplete = new LongAdder();
+    /** Number of write-path adjustments, to detect writes racing a reconciliation */
+    private final AtomicLong adjustments = new AtomicLong();
+    private final LongAdder corrections = new LongAdder();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    /** Shared by adjustments, exclusive while a reconciliation checks and applies its correction */
+    private final ReadWriteLock adjustLock = new ReentrantReadWriteLock();
+    private volatile boolean seeded;
+
+    public TaskCounters(TaskStore taskStore) {
+        this.taskStore = taskStore;
+    }
+
+    /**
+     * Seed the counters once the application is ready to serve requests
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        seed();
+    }
+
+    /**
+     * Get the current counts, seeding them first if no seed succeeded yet
+     * @return task counts
+     */
+    public TaskStatsDto getStats() {
+        if (!seeded) {
+            seed();
+        }
+        long all = Math.max(total.sum(), 0);
+        long open = Math.min(Math.max(incomplete.sum(), 0), all);
+        return new TaskStatsDto(all, open, all - open);
+    }
+
+    /**
+     * Record newly created incomplete tasks
+     * @param count number of created tasks
+     */
+    public void onCreated(int count) {
+        adjust(count, count);
+    }
+
+    /**
+     * Record tasks that changed from incomplete to completed
+     * @param count number of completed tasks
+     */
+    public void onCompleted(int count) {
+        adjust(0, -count);
+    }
+
+    /**
+     * Record deleted tasks
+     * @param incompleteCount number of deleted incomplete tasks
+     * @param completedCount number of deleted completed tasks
+     */
+    public void onDeleted(int incompleteCount, int completedCount) {
+        adjust(-(incompleteCount + completedCount), -incompleteCount);
+    }
+
+    /**
+     * Count the table and correct the counters by the difference
+     */
+    @Scheduled(fixedDelayString = "${todo.task-counters.reconcile-interval-ms:60000}",
+               initialDelayString = "${todo.task-counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (seeded) {
+            reconcileOnce();
+        }
+    }
+
+    public long getCorrectionCount() {
+        return corrections.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.tasks", total, LongAdder::sum)
+                .description("Tasks by state, from the in-memory counters")
+                .tag("state", "all")
+                .register(registry);
+        Gauge.builder("todo.tasks", incomplete, LongAdder::sum)
+                .description("Tasks by state, from the in-memory counters")
+                .tag("state", "incomplete")
+                .register(registry);
+        FunctionCounter.builder("todo.task_counters.corrections", corrections, LongAdder::sum)
+                .description("Reconciliations that found the counters off from the database")
+                .register(registry);
+    }
+
+    private void adjust(long totalDelta, long incompleteDelta) {
+        adjustLock.readLock().lock();
+        try {
+            adjustments.incrementAndGet();
+            total.add(totalDelta);
+            incomplete.add(incompleteDelta);
+        } finally {
+            adjustLock.readLock().unlock();
+        }
+    }
+
+    private void seed() {
+        reconcileLock.lock();
+        try {
+            for (int attempt = 0; attempt < SEED_ATTEMPTS && !seeded; attempt++) {
+                seeded = reconcileOnce();
+            }
+            if (!seeded) {
+                // Writes kept racing the count; serve what we have and let the next pass correct it
+                seeded = true;
+                log.warn("Task counters seeded while writes were in flight; the next reconciliation corrects them");
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    /**
+     * @return false when a write adjusted the counters during the count
+     */
+    private boolean reconcileOnce() {
+        reconcileLock.lock();
+        try {
+            long before = adjustments.get();
+            // Counters follow committed writes; a lagging replica would report older counts
+            TaskCounts counts = ReadRouting.onPrimary(taskStore::countTasks);
+            adjustLock.writeLock().lock();
+            try {
+                if (adjustments.get() != before) {
+                    log.debug("Task counters changed during reconciliation, skipping");
+                    return false;
+                }
+                applyDrift(counts);
+            } finally {
+                adjustLock.writeLock().unlock();
+            }
+            return true;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void applyDrift(TaskCounts counts) {
+        long totalDrift = counts.getTotal() - total.sum();
+        long incompleteDrift = counts.getIncomplete() - incomplete.sum();
+        if (totalDrift != 0 || incompleteDrift != 0) {
+            total.add(totalDrift);
+            incomplete.add(incompleteDrift);
+            if (seeded) {
+                corrections.increment();
+                log.warn("Task counters drifted from the database by {} total and {} incomplete, corrected",
+                        totalDrift, incompleteDrift);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.todo.service;
+
+import com.todo.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor pointing at the last task of a page.
+ * Encoded as URL-safe Base64 of the task's creation date and ID.
+ */
+record TaskCursor(LocalDateTime createdAt, Long id) {
+    
+    private static final char SEPARATOR = '|';
+    
+    /**
+     * Encode the cursor as an opaque token
+     * @return URL-safe cursor token
+     */
+    String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a cursor token produced by {@link #encode()}
+     * @param token cursor token
+     * @return decoded cursor
+     */
+    static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor: " + token);
+            }
+            return new TaskCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor: " + token, ex);
+        }
+    }
+}
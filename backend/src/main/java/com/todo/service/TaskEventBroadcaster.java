@@ -0,0 +1,305 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.TaskChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pushes task change events to Server-Sent Events subscribers.
+ * <p>
+ * Connections are held by the async servlet support and use no thread
+ * while idle; events are written by a small dispatch pool. Each subscriber
+ * has a bounded queue, and a subscriber whose queue overflows is
+ * disconnected so that it resumes with Last-Event-ID instead of holding
+ * back the others. Recent events are kept in a ring buffer for resuming;
+ * a subscriber that fell further behind receives a {@code reset} event
+ * and should reload its state.
+ */
+@Component
+@Slf4j
+public class TaskEventBroadcaster implements MeterBinder {
+
+    static final String RESET_EVENT = "reset";
+    private static final long RECONNECT_DELAY_MILLIS = 3_000;
+
+    private final ObjectMapper objectMapper;
+    private final Executor dispatcher;
+    private final Supplier<SseEmitter> emitterFactory;
+    private final int replayCapacity;
+    private final int bufferSize;
+    private final int maxSubscribers;
+
+    /** Distinguishes event IDs issued before a restart, which cannot be resumed */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    /** Guards the sequence and history, and orders delivery to subscribers */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Entry> history = new ArrayDeque<>();
+    private long sequence;
+
+    @Autowired
+    public TaskEventBroadcaster(
+            ObjectMapper objectMapper,
+            @Value("${todo.events.replay-capacity:1000}") int replayCapacity,
+            @Value("${todo.events.subscriber-buffer:256}") int bufferSize,
+            @Value("${todo.events.max-subscribers:5000}") int maxSubscribers,
+            @Value("${todo.events.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${todo.events.dispatch-threads:2}") int dispatchThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(objectMapper,
+                virtualThreads
+                        ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-events-", 0).factory())
+                        : Executors.newFixedThreadPool(dispatchThreads,
+                                Thread.ofPlatform().name("task-events-", 0).daemon().factory()),
+                () -> new SseEmitter(timeoutMillis),
+                replayCapacity, bufferSize, maxSubscribers);
+    }
+
+    TaskEventBroadcaster(ObjectMapper objectMapper, Executor dispatcher, Supplier<SseEmitter> emitterFactory,
+                         int replayCapacity, int bufferSize, int maxSubscribers) {
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+        this.emitterFactory = emitterFactory;
+        this.replayCapacity = replayCapacity;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Open a change feed
+     * @param lastEventId ID of the last event the client received, or null
+     * @return SSE emitter, or empty when the subscriber limit is reached
+     */
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            log.warn("Rejecting change feed subscriber - limit of {} reached", maxSubscribers);
+            return Optional.empty();
+        }
+        SseEmitter emitter = emitterFactory.get();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+
+        lock.lock();
+        try {
+            List<Entry> replay = replaySince(lastEventId);
+            subscriber.offer(Entry.CONNECTED);
+            if (replay == null) {
+                subscriber.offer(Entry.RESET);
+            } else {
+                replay.forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Record a committed task change and queue it for every subscriber
+     * @param event task change
+     */
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            log.error("Could not serialize task change event: {}", ex.getMessage());
+            return;
+        }
+        lock.lock();
+        try {
+            Entry entry = new Entry(epoch + "-" + (++sequence), event.getType().getEventName(), data);
+            history.addLast(entry);
+            if (history.size() > replayCapacity) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Send a comment to every subscriber so that intermediaries keep idle
+     * connections open and closed connections are detected
+     */
+    @Scheduled(fixedRateString = "${todo.events.heartbeat-interval-ms:15000}",
+               initialDelayString = "${todo.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(Entry.HEARTBEAT);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedSubscriberCount() {
+        return droppedSubscribers.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.events.subscribers", this, TaskEventBroadcaster::getSubscriberCount)
+                .description("Open task change feed connections")
+                .register(registry);
+        FunctionCounter.builder("todo.events.dropped_subscribers", this,
+                        TaskEventBroadcaster::getDroppedSubscriberCount)
+                .description("Change feed subscribers disconnected because their buffer overflowed")
+                .register(registry);
+    }
+
+    /**
+     * Collect the retained events after the given event ID; must hold the lock
+     * @return events to replay, or null when the client has to reload
+     */
+    private List<Entry> replaySince(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long lastSequence;
+        try {
+            lastSequence = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        long oldestRetained = sequence - history.size() + 1;
+        if (lastSequence < oldestRetained - 1 || lastSequence > sequence
+                || sequence - lastSequence >= bufferSize) {
+            return null;
+        }
+        List<Entry> replay = new ArrayList<>((int) (sequence - lastSequence));
+        history.stream()
+                .skip(lastSequence - oldestRetained + 1)
+                .forEach(replay::add);
+        return replay;
+    }
+
+    /**
+     * A queued SSE message; entries without an ID are not recorded in the history
+     */
+    private record Entry(String id, String name, String data) {
+        static final Entry CONNECTED = new Entry(null, null, "connected");
+        static final Entry HEARTBEAT = new Entry(null, null, "heartbeat");
+        static final Entry RESET = new Entry(null, RESET_EVENT, "{}");
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (this == CONNECTED) {
+                return SseEmitter.event().comment(data).reconnectTime(RECONNECT_DELAY_MILLIS);
+            }
+            if (name == null) {
+                return SseEmitter.event().comment(data);
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (id != null) {
+                event.id(id);
+            }
+            return event.name(name).data(data);
+        }
+    }
+
+    /**
+     * A connected client with its own bounded queue, drained by at most one
+     * dispatcher task at a time
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Entry> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Entry entry) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(entry)) {
+                log.warn("Disconnecting slow change feed subscriber - {} events buffered", bufferSize);
+                droppedSubscribers.increment();
+                close();
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Entry entry;
+                while (!closed.get() && (entry = queue.poll()) != null) {
+                    emitter.send(entry.toEvent());
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Change feed subscriber went away: {}", ex.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An entry may have been queued after the last poll but before the flag was cleared
+            if (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                queue.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.model.Task;
+import com.todo.repository.TaskStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service class for streaming task exports
+ */
+@Service
+@Timed("todo.task.export")
+@RequiredArgsConstructor
+@Slf4j
+public class TaskExportService {
+    
+    private final TaskStore taskStore;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    
+    /**
+     * Write matching tasks to the output stream as newline-delimited JSON.
+     * Rows are serialized one at a time and detached right after, so memory
+     * use does not grow with the number of exported tasks.
+     * @param completed completion state to match, or null for all tasks
+     * @param since lower bound (inclusive) on the last update, or null for all tasks
+     * @param out output stream to write to; left open
+     * @return number of exported tasks
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(Boolean completed, LocalDateTime since, OutputStream out) throws IOException {
+        log.debug("Exporting tasks (completed: {}, since: {})", completed, since);
+        long count = 0;
+        try (Stream<Task> tasks = taskStore.streamForExport(completed, since);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                objectMapper.writeValue(generator, TaskService.convertToDto(task));
+                generator.writeRaw('\n');
+                entityManager.detach(task);
+                count++;
+            }
+        }
+        log.info("Exported {} tasks", count);
+        return count;
+    }
+}
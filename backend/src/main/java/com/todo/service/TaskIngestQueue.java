@@ -0,0 +1,474 @@
+package com.todo.service;
+
+import com.todo.dto.TaskBulkItemResultDto;
+import com.todo.dto.TaskCreateDto;
+import com.todo.dto.TaskIngestStatusDto;
+import com.todo.exception.BadRequestException;
+import com.todo.exception.ServiceUnavailableException;
+import com.todo.exception.TooManyRequestsException;
+import com.todo.journal.TaskJournal;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind ingestion for single task creations, enabled with
+ * {@code todo.ingest.enabled}. Accepted tasks wait in a bounded queue, and
+ * one writer thread stores them in group commits: a batch closes when it
+ * holds {@code max-batch-size} tasks or {@code max-batch-delay-ms} after its
+ * first task arrived, and is created with {@link TaskService#createTasks} in
+ * one transaction. Write throughput then grows with the batch size instead
+ * of being bound by one commit per request.
+ * <p>
+ * Accepted tasks are appended to the {@link TaskJournal} before they are
+ * queued and acknowledged there once their batch committed, and tasks left
+ * in the journal by a crash are created again on startup. With the journal
+ * disabled a task is durable only once its batch committed. Callers that
+ * need the task in the database wait for their ticket.
+ * <p>
+ * A failed group commit is retried with a backoff starting at
+ * {@code retry-backoff-ms} and doubling up to {@link #MAX_RETRY_BACKOFF_MILLIS};
+ * its tasks stay pending and new ones queue behind it until the queue is
+ * full. After {@link #SPLIT_AFTER_ATTEMPTS} failed attempts its tasks are
+ * committed one at a time, and a task the database rejects as data (such as
+ * a value too long for its column) fails after as many attempts of its own,
+ * so one bad task does not hold back the others. Queued tasks are still
+ * written on shutdown. A batch still failing
+ * then stays in the journal with the tasks behind it, and all of them are
+ * created on the next start; without a journal its tasks fail.
+ */
+@Component
+@Slf4j
+public class TaskIngestQueue implements MeterBinder {
+
+    private static final long POLL_MILLIS = 100;
+    private static final long SHUTDOWN_MILLIS = 10_000;
+    static final long MAX_RETRY_BACKOFF_MILLIS = 5_000;
+    /** Failed attempts after which a batch is split, or a single rejected task fails */
+    static final int SPLIT_AFTER_ATTEMPTS = 3;
+
+    private final TaskService taskService;
+    private final TaskJournal taskJournal;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final Duration durableTimeout;
+    private final long retryBackoffMillis;
+    private final BlockingQueue<Ticket> queue;
+    /** Tickets by tracking ID, oldest first; finished ones are dropped once the map is full */
+    private final Map<String, Ticket> tickets;
+    /** Keeps journal order and queue order the same, so an acknowledgement covers exactly the committed tasks */
+    private final ReentrantLock submitLock = new ReentrantLock();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejectedByDatabase = new LongAdder();
+    private volatile DistributionSummary batchSizes;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public TaskIngestQueue(TaskService taskService,
+                           TaskJournal taskJournal,
+                           @Value("${todo.ingest.enabled:false}") boolean enabled,
+                           @Value("${todo.ingest.queue-capacity:10000}") int queueCapacity,
+                           @Value("${todo.ingest.max-batch-size:500}") int maxBatchSize,
+                           @Value("${todo.ingest.max-batch-delay-ms:10}") long maxBatchDelayMillis,
+                           @Value("${todo.ingest.retained-results:10000}") int retainedResults,
+                           @Value("${todo.ingest.durable-timeout-ms:5000}") long durableTimeoutMillis,
+                           @Value("${todo.ingest.retry-backoff-ms:100}") long retryBackoffMillis) {
+        this.taskService = taskService;
+        this.taskJournal = taskJournal;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxBatchDelayMillis, 0));
+        this.durableTimeout = Duration.ofMillis(durableTimeoutMillis);
+        this.retryBackoffMillis = Math.max(retryBackoffMillis, 1);
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        int maxTickets = Math.max(queueCapacity, 1) + this.maxBatchSize + Math.max(retainedResults, 0);
+        this.tickets = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ticket> eldest) {
+                return size() > maxTickets && eldest.getValue().result.isDone();
+            }
+        });
+    }
+
+    /**
+     * Create the tasks a crash left in the journal, then start the writer
+     * thread when ingestion is enabled. Replay runs even with ingestion
+     * disabled, so that turning it off does not lose journaled tasks.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        replay(taskJournal.recover());
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("task-ingest-writer").daemon().start(this::drain);
+        log.info("Task ingestion enabled: batches of up to {} tasks or {} ms, queue capacity {}, journal {}",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxBatchDelayNanos), queue.remainingCapacity(),
+                taskJournal.isEnabled() ? "fsync " + taskJournal.getFsyncPolicy() : "disabled");
+    }
+
+    /**
+     * Stop accepting tasks and wait for the queued ones to be written
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(SHUTDOWN_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Task ingestion stopped with {} tasks not written", queue.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a validated task for the next group commit
+     * @param taskCreateDto task creation data
+     * @return ticket tracking the task
+     * @throws TooManyRequestsException when the queue is full
+     */
+    public Ticket submit(TaskCreateDto taskCreateDto) {
+        if (!running) {
+            throw new ServiceUnavailableException("Task ingestion is not running");
+        }
+        Ticket ticket;
+        submitLock.lock();
+        try {
+            // Only submissions add to the queue, so a free slot cannot be taken before the offer
+            if (queue.remainingCapacity() == 0) {
+                rejected.increment();
+                throw new TooManyRequestsException("Task ingestion queue is full");
+            }
+            long sequence = 0;
+            if (taskJournal.isEnabled()) {
+                try {
+                    sequence = taskJournal.append(taskCreateDto);
+                } catch (IllegalArgumentException ex) {
+                    throw new BadRequestException(ex.getMessage());
+                }
+            }
+            ticket = new Ticket(UUID.randomUUID().toString(), taskCreateDto, sequence);
+            tickets.put(ticket.id, ticket);
+            queue.add(ticket);
+            accepted.increment();
+        } finally {
+            submitLock.unlock();
+        }
+        // Outside the lock, so that concurrent submissions share one fsync
+        if (ticket.sequence > 0) {
+            taskJournal.sync(ticket.sequence);
+        }
+        return ticket;
+    }
+
+    /**
+     * Wait until the ticket's batch committed, at most {@code todo.ingest.durable-timeout-ms}
+     * @param ticket ticket returned by {@link #submit}
+     * @return final status, or the pending status when the timeout elapsed first
+     */
+    public TaskIngestStatusDto await(Ticket ticket) {
+        try {
+            ticket.result.get(durableTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            // Reported by the status
+        }
+        return ticket.status();
+    }
+
+    /**
+     * Get the status of a queued or recently written task
+     * @param trackingId tracking ID returned on submission
+     * @return status, or empty when the ID is unknown or no longer retained
+     */
+    public Optional<TaskIngestStatusDto> getStatus(String trackingId) {
+        return Optional.ofNullable(tickets.get(trackingId)).map(Ticket::status);
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getRejectedByDatabaseCount() {
+        return rejectedByDatabase.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.ingest.queue.size", this, TaskIngestQueue::getQueueSize)
+                .description("Tasks waiting for a group commit")
+                .register(registry);
+        FunctionCounter.builder("todo.ingest.accepted", this, TaskIngestQueue::getAcceptedCount)
+                .description("Tasks accepted into the ingestion queue")
+                .register(registry);
+        FunctionCounter.builder("todo.ingest.rejected", this, TaskIngestQueue::getRejectedCount)
+                .description("Tasks rejected because the ingestion queue was full")
+                .register(registry);
+        FunctionCounter.builder("todo.ingest.failed", this, TaskIngestQueue::getFailedCount)
+                .description("Tasks in group commit attempts that failed, counted once per attempt")
+                .register(registry);
+        FunctionCounter.builder("todo.ingest.rejected-by-database", this, TaskIngestQueue::getRejectedByDatabaseCount)
+                .description("Tasks that failed because the database kept rejecting them")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("todo.ingest.batch.size")
+                .description("Tasks per group commit")
+                .register(registry);
+    }
+
+    /**
+     * Writer loop: collect a batch, commit it, repeat. Runs until shutdown
+     * and the queue is empty.
+     */
+    private void drain() {
+        List<Ticket> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticket first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxBatchDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    // Take whatever is queued, then wait out the rest of the batch window
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Ticket next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                if (!commit(batch)) {
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                commit(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commit a batch, retrying until it succeeds or the queue shuts down;
+     * a batch that keeps failing is split into single tasks
+     * @return false when the batch was given up; it stays in the journal, so
+     *         nothing after it may be acknowledged
+     */
+    private boolean commit(List<Ticket> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        long backoffMillis = retryBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            List<TaskBulkItemResultDto> results;
+            try {
+                results = taskService.createTasks(batch.stream().map(ticket -> ticket.task).toList());
+            } catch (RuntimeException ex) {
+                failed.add(batch.size());
+                if (!running || Thread.currentThread().isInterrupted()) {
+                    return giveUp(batch, ex);
+                }
+                if (attempt >= SPLIT_AFTER_ATTEMPTS && batch.size() > 1) {
+                    log.warn("Group commit of {} tasks failed {} times, committing them one at a time",
+                            batch.size(), attempt);
+                    return commitEach(batch);
+                }
+                if (attempt >= SPLIT_AFTER_ATTEMPTS && ex instanceof DataIntegrityViolationException) {
+                    Ticket ticket = batch.get(0);
+                    log.error("Task {} ({}) was rejected by the database {} times and is dropped: {}",
+                            ticket.id, ticket.task.getTitle(), attempt, ex.getMessage());
+                    rejectedByDatabase.increment();
+                    finish(batch, List.of(TaskBulkItemResultDto.rejected(0,
+                            Map.of("task", "Task was rejected by the database"))));
+                    return true;
+                }
+                log.error("Group commit of {} tasks failed, retrying in {} ms: {}",
+                        batch.size(), backoffMillis, ex.getMessage(), ex);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return giveUp(batch, ex);
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF_MILLIS);
+                continue;
+            }
+            finish(batch, results);
+            return true;
+        }
+    }
+
+    /**
+     * Commit the tasks of a failing batch one at a time, in order
+     */
+    private boolean commitEach(List<Ticket> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (!commit(batch.subList(i, i + 1))) {
+                List<Ticket> rest = batch.subList(i + 1, batch.size());
+                if (!rest.isEmpty() && !taskJournal.isEnabled()) {
+                    IllegalStateException stopped = new IllegalStateException("Task ingestion stopped");
+                    rest.forEach(ticket -> ticket.result.completeExceptionally(stopped));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Acknowledge a committed batch and report its results to its tickets
+     */
+    private void finish(List<Ticket> batch, List<TaskBulkItemResultDto> results) {
+        // Acknowledged only once committed; acknowledgements are cumulative
+        if (taskJournal.isEnabled()) {
+            taskJournal.acknowledge(batch.get(batch.size() - 1).sequence);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(results.get(i));
+        }
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+    }
+
+    private boolean giveUp(List<Ticket> batch, RuntimeException ex) {
+        if (taskJournal.isEnabled()) {
+            // Left pending: the journal creates them on the next start
+            log.error("Group commit of {} tasks failed on shutdown; they and {} queued tasks stay in the journal",
+                    batch.size(), queue.size(), ex);
+        } else {
+            log.error("Group commit of {} tasks failed on shutdown, tasks lost", batch.size(), ex);
+            batch.forEach(ticket -> ticket.result.completeExceptionally(ex));
+        }
+        return false;
+    }
+
+    /**
+     * Create journaled tasks in batches, acknowledging each batch. A batch
+     * the database rejects is created one task at a time, skipping the
+     * rejected tasks.
+     * @param entries tasks that were not acknowledged, in sequence order
+     */
+    private void replay(List<TaskJournal.Entry> entries) {
+        for (int from = 0; from < entries.size(); from += maxBatchSize) {
+            List<TaskJournal.Entry> chunk = entries.subList(from, Math.min(from + maxBatchSize, entries.size()));
+            try {
+                taskService.createTasks(chunk.stream().map(TaskJournal.Entry::task).toList());
+            } catch (DataIntegrityViolationException ex) {
+                for (TaskJournal.Entry entry : chunk) {
+                    try {
+                        taskService.createTasks(List.of(entry.task()));
+                    } catch (DataIntegrityViolationException rejected) {
+                        log.error("Journaled task {} ({}) was rejected by the database and is dropped: {}",
+                                entry.sequence(), entry.task().getTitle(), rejected.getMessage());
+                        rejectedByDatabase.increment();
+                    }
+                }
+            }
+            taskJournal.acknowledge(chunk.get(chunk.size() - 1).sequence());
+        }
+        if (!entries.isEmpty()) {
+            log.info("Replayed {} journaled tasks", entries.size());
+        }
+    }
+
+    /**
+     * A task waiting in the queue or in a batch
+     */
+    public static final class Ticket {
+
+        private final String id;
+        private final TaskCreateDto task;
+        /** Journal sequence number, 0 without a journal */
+        private final long sequence;
+        private final CompletableFuture<TaskBulkItemResultDto> result = new CompletableFuture<>();
+
+        private Ticket(String id, TaskCreateDto task, long sequence) {
+            this.id = id;
+            this.task = task;
+            this.sequence = sequence;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        TaskIngestStatusDto status() {
+            if (!result.isDone()) {
+                return new TaskIngestStatusDto(id, TaskIngestStatusDto.Status.PENDING, null, null);
+            }
+            if (result.isCompletedExceptionally()) {
+                return new TaskIngestStatusDto(id, TaskIngestStatusDto.Status.FAILED, null,
+                        Map.of("task", "Task could not be stored"));
+            }
+            TaskBulkItemResultDto item = result.join();
+            return item.isSuccess()
+                    ? new TaskIngestStatusDto(id, TaskIngestStatusDto.Status.CREATED, item.getTask(), null)
+                    : new TaskIngestStatusDto(id, TaskIngestStatusDto.Status.FAILED, null, item.getErrors());
+        }
+    }
+}
@@ -0,0 +1,755 @@
+package com.todo.service;
+
+import com.todo.dto.TaskResponseDto;
+import com.todo.repository.TaskStore;
+import com.todo.util.LongIntMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over task titles and descriptions.
+ * <p>
+ * Documents get dense ordinals in insertion order, so every posting list is
+ * sorted by ordinal and only ever appended to. Queries match all terms;
+ * the last term (and any term ending with {@code *}) also matches as a
+ * prefix. Results are ranked with BM25, title terms counting three times.
+ * Deleted tasks are tombstoned and the index is rebuilt from the database
+ * once tombstones pass a quarter of the documents. The index is loaded in
+ * the background at startup and then kept in sync by the task write paths.
+ */
+@Component
+@Slf4j
+public class TaskSearchIndex implements MeterBinder {
+
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    /** Postings a prefix may expand to; the rarest expansions of very broad prefixes are dropped */
+    static final int MAX_PREFIX_POSTINGS = 100_000;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int TITLE_BOOST = 3;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int COMPACTION_MIN_DOCS = 10_000;
+    /** Words too common to rank or filter by; matching them would visit most postings */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with");
+
+    private final TaskStore taskStore;
+
+    /** Guards the segment and the pending changes */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    /** Changes made while a rebuild is loading; replayed onto the new segment */
+    private List<Consumer<Segment>> pending;
+    private volatile boolean ready;
+    /** Serializes rebuilds */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public TaskSearchIndex(TaskStore taskStore) {
+        this.taskStore = taskStore;
+    }
+
+    /**
+     * Matching task IDs for one page of results
+     * @param taskIds task IDs, best match first
+     * @param total number of matching tasks
+     */
+    public record Hits(List<Long> taskIds, int total) {
+    }
+
+    /**
+     * Load the index in the background once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Thread.ofPlatform().name("task-search-index").daemon().start(this::rebuild);
+    }
+
+    /**
+     * Whether the index has been loaded and can serve searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reload the index from the repository. Searches are served from the
+     * previous state until the new one is complete; changes made meanwhile
+     * are replayed onto it.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            write(() -> pending = new ArrayList<>());
+            long startNanos = System.nanoTime();
+            Segment loaded = new Segment();
+            taskStore.forEachTaskText(loaded::add);
+            write(() -> {
+                pending.forEach(change -> change.accept(loaded));
+                segment = loaded;
+                ready = true;
+            });
+            log.info("Task search index loaded with {} tasks and {} terms in {} ms",
+                    loaded.liveCount, loaded.terms.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.error("Could not load the task search index: {}", ex.getMessage(), ex);
+        } finally {
+            write(() -> pending = null);
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Search tasks
+     * @param query free text; terms are combined with AND
+     * @param offset number of best matches to skip
+     * @param limit maximum number of task IDs to return
+     * @return one page of matching task IDs and the total number of matches
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<QueryTerm> queryTerms = parse(query);
+        if (queryTerms.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(queryTerms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a newly created task
+     * @param task created task
+     */
+    public void add(TaskResponseDto task) {
+        addAll(List.of(task));
+    }
+
+    /**
+     * Index newly created tasks
+     * @param tasks created tasks
+     */
+    public void addAll(List<TaskResponseDto> tasks) {
+        apply(target -> tasks.forEach(task ->
+                target.add(task.getId(), task.getTitle(), task.getDescription())));
+    }
+
+    /**
+     * Remove deleted tasks
+     * @param taskIds deleted task IDs
+     */
+    public void removeAll(Collection<Long> taskIds) {
+        List<Long> ids = List.copyOf(taskIds);
+        apply(target -> ids.forEach(target::remove));
+        boolean compact;
+        lock.readLock().lock();
+        try {
+            compact = segment.docCount >= COMPACTION_MIN_DOCS && segment.deleted.cardinality() * 4 > segment.docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (compact && !rebuildLock.isLocked()) {
+            log.debug("Compacting task search index");
+            load();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.search.index.size", this, TaskSearchIndex::size)
+                .description("Tasks held by the search index")
+                .register(registry);
+    }
+
+    private void apply(Consumer<Segment> change) {
+        write(() -> {
+            change.accept(segment);
+            if (pending != null) {
+                pending.add(change);
+            }
+        });
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lower-case letter and digit runs, skipping single
+     * characters and stop words
+     */
+    static void tokenize(String text, Consumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); ) {
+            int codePoint = i < text.length() ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else if (!token.isEmpty()) {
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    String term = token.toString();
+                    if (!STOP_WORDS.contains(term)) {
+                        consumer.accept(term);
+                    }
+                }
+                token.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+    }
+
+    private static List<QueryTerm> parse(String query) {
+        Map<String, Boolean> terms = new HashMap<>();
+        List<String> order = new ArrayList<>();
+        String[] chunks = query == null ? new String[0] : query.trim().split("\\s+");
+        for (int c = 0; c < chunks.length; c++) {
+            List<String> tokens = new ArrayList<>();
+            tokenize(chunks[c], tokens::add);
+            boolean chunkPrefix = chunks[c].endsWith("*") || c == chunks.length - 1;
+            for (int t = 0; t < tokens.size(); t++) {
+                String token = tokens.get(t);
+                boolean prefix = chunkPrefix && t == tokens.size() - 1 && token.length() >= MIN_PREFIX_LENGTH;
+                if (!terms.containsKey(token)) {
+                    order.add(token);
+                }
+                terms.merge(token, prefix, Boolean::logicalOr);
+            }
+        }
+        return order.stream()
+                .limit(MAX_QUERY_TERMS)
+                .map(term -> new QueryTerm(term, terms.get(term)))
+                .toList();
+    }
+
+    private record QueryTerm(String text, boolean prefix) {
+    }
+
+    /**
+     * Sorted, append-only posting list of document ordinals and term frequencies.
+     * Each block of postings records its highest frequency and shortest
+     * document, which bound the score any of its documents can reach.
+     */
+    private static final class Postings {
+        static final int BLOCK_SHIFT = 7;
+
+        int[] docs = new int[2];
+        byte[] freqs = new byte[2];
+        int size;
+        byte[] blockMaxFreqs = new byte[1];
+        int[] blockMinLengths = {Integer.MAX_VALUE};
+
+        void add(int doc, int freq, int length) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            int block = size >> BLOCK_SHIFT;
+            if (block == blockMaxFreqs.length) {
+                blockMaxFreqs = Arrays.copyOf(blockMaxFreqs, block * 2);
+                blockMinLengths = Arrays.copyOf(blockMinLengths, block * 2);
+                Arrays.fill(blockMinLengths, block, block * 2, Integer.MAX_VALUE);
+            }
+            int clamped = Math.min(freq, 255);
+            docs[size] = doc;
+            freqs[size] = (byte) clamped;
+            blockMaxFreqs[block] = (byte) Math.max(blockMaxFreqs[block] & 0xFF, clamped);
+            blockMinLengths[block] = Math.min(blockMinLengths[block], length);
+            size++;
+        }
+
+        int freq(int index) {
+            return freqs[index] & 0xFF;
+        }
+    }
+
+    /**
+     * Documents matching one query term, visited from the newest down so
+     * that score ties keep the newer task without reordering the heap.
+     * A plain term is scored lazily from its postings; a prefix term carries
+     * the scores summed over its expansions, either as sorted arrays or, when
+     * it matches a large part of the index, as arrays indexed by ordinal.
+     */
+    private static final class Clause {
+        final int size;
+        final int[] docs;
+        final float[] scores;
+        final Postings postings;
+        final float idf;
+        final float[] denseScores;
+        final BitSet denseDocs;
+        int cursor;
+        int current = -1;
+
+        private Clause(int size, int[] docs, float[] scores, Postings postings, float idf,
+                       float[] denseScores, BitSet denseDocs) {
+            this.size = size;
+            this.docs = docs;
+            this.scores = scores;
+            this.postings = postings;
+            this.idf = idf;
+            this.denseScores = denseScores;
+            this.denseDocs = denseDocs;
+            this.cursor = size - 1;
+        }
+
+        static Clause of(Postings postings, float idf) {
+            return new Clause(postings.size, postings.docs, null, postings, idf, null, null);
+        }
+
+        static Clause scored(int[] docs, float[] scores, int size) {
+            return new Clause(size, docs, scores, null, 0, null, null);
+        }
+
+        static Clause dense(float[] scores, BitSet docs) {
+            return new Clause(docs.cardinality(), null, null, null, 0, scores, docs);
+        }
+
+        /**
+         * Move back to the last document at or before the target
+         * @return that document, or -1 if there is none
+         */
+        int floor(int target) {
+            if (denseDocs != null) {
+                current = target < 0 ? -1 : denseDocs.previousSetBit(target);
+                return current;
+            }
+            int step = 1;
+            int low = cursor;
+            int high = cursor;
+            while (low >= 0 && docs[low] > target) {
+                high = low - 1;
+                low -= step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(docs, Math.max(low, 0), high + 1, target);
+            cursor = index >= 0 ? index : -index - 2;
+            current = cursor >= 0 ? docs[cursor] : -1;
+            return current;
+        }
+
+        /**
+         * Step back to the preceding document; used to walk the leading clause
+         * @return that document, or -1 if there is none
+         */
+        int previous() {
+            if (denseDocs != null) {
+                return floor(current - 1);
+            }
+            cursor--;
+            current = cursor >= 0 ? docs[cursor] : -1;
+            return current;
+        }
+
+        /**
+         * Score the document found by the last {@link #floor(int)} or {@link #previous()}
+         */
+        float score(Segment segment, float lengthWeight) {
+            if (denseScores != null) {
+                return denseScores[current];
+            }
+            return scores != null
+                    ? scores[cursor]
+                    : segment.bm25(idf, postings.freq(cursor), current, lengthWeight);
+        }
+    }
+
+    /**
+     * The index state: documents, terms and tombstones
+     */
+    private static final class Segment {
+        final TreeMap<String, Postings> terms = new TreeMap<>();
+        final LongIntMap ordinals = new LongIntMap(1024);
+        final BitSet deleted = new BitSet();
+        /** Score accumulators for dense prefix unions, reused to spare the allocation */
+        final ArrayBlockingQueue<float[]> scratch = new ArrayBlockingQueue<>(4);
+        long[] taskIds = new long[1024];
+        int[] lengths = new int[1024];
+        int docCount;
+        int liveCount;
+        long totalLength;
+
+        void add(long taskId, String title, String description) {
+            if (ordinals.get(taskId) >= 0) {
+                return;
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(title, term -> frequencies.merge(term, TITLE_BOOST, Integer::sum));
+            tokenize(description, term -> frequencies.merge(term, 1, Integer::sum));
+            int doc = docCount++;
+            if (doc == taskIds.length) {
+                taskIds = Arrays.copyOf(taskIds, doc * 2);
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue(), length);
+            }
+            taskIds[doc] = taskId;
+            lengths[doc] = length;
+            ordinals.put(taskId, doc);
+            liveCount++;
+            totalLength += length;
+        }
+
+        void remove(long taskId) {
+            int doc = ordinals.remove(taskId);
+            if (doc < 0) {
+                return;
+            }
+            deleted.set(doc);
+            liveCount--;
+            totalLength -= lengths[doc];
+        }
+
+        Hits search(List<QueryTerm> queryTerms, int offset, int limit) {
+            if (liveCount == 0 || limit <= 0) {
+                return new Hits(List.of(), 0);
+            }
+            // Length normalization is K1 * (1 - B) + lengthWeight * length
+            float lengthWeight = K1 * B / Math.max(1f, (float) totalLength / liveCount);
+            List<Clause> clauses = new ArrayList<>(queryTerms.size());
+            for (QueryTerm queryTerm : queryTerms) {
+                Clause clause = clause(queryTerm, lengthWeight);
+                if (clause.size == 0) {
+                    clauses.forEach(this::release);
+                    return new Hits(List.of(), 0);
+                }
+                clauses.add(clause);
+            }
+            clauses.sort(Comparator.comparingInt(clause -> clause.size));
+
+            TopDocs top = new TopDocs(offset + limit);
+            Clause lead = clauses.get(0);
+            int total = clauses.size() == 1 && lead.postings != null
+                    ? collectTerm(lead.postings, lead.idf, lengthWeight, top)
+                    : collect(clauses, lengthWeight, top);
+
+            int[] docs = top.sorted();
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, docs.length - offset)));
+            for (int i = offset; i < docs.length; i++) {
+                page.add(taskIds[docs[i]]);
+            }
+            for (Clause clause : clauses) {
+                release(clause);
+            }
+            return new Hits(page, total);
+        }
+
+        /**
+         * Intersect the clauses, driven by the one with the fewest documents
+         * @return number of matching documents
+         */
+        private int collect(List<Clause> clauses, float lengthWeight, TopDocs top) {
+            Clause lead = clauses.get(0);
+            int total = 0;
+            candidates:
+            for (int doc = lead.floor(docCount - 1); doc >= 0; doc = lead.previous()) {
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                for (int c = 1; c < clauses.size(); c++) {
+                    if (clauses.get(c).floor(doc) != doc) {
+                        continue candidates;
+                    }
+                }
+                float score = 0;
+                for (Clause clause : clauses) {
+                    score += clause.score(this, lengthWeight);
+                }
+                total++;
+                top.offer(doc, score);
+            }
+            return total;
+        }
+
+        /**
+         * Score a single term's postings block by block, skipping the scoring
+         * of blocks whose best possible score cannot enter the top documents
+         * @return number of matching documents
+         */
+        private int collectTerm(Postings postings, float idf, float lengthWeight, TopDocs top) {
+            boolean anyDeleted = !deleted.isEmpty();
+            int total = 0;
+            for (int block = (postings.size - 1) >> Postings.BLOCK_SHIFT; block >= 0; block--) {
+                int from = block << Postings.BLOCK_SHIFT;
+                int to = Math.min(from + (1 << Postings.BLOCK_SHIFT), postings.size);
+                boolean competitive = !top.isFull() || score(idf, postings.blockMaxFreqs[block] & 0xFF,
+                        postings.blockMinLengths[block], lengthWeight) >= top.minScore();
+                if (!competitive && !anyDeleted) {
+                    total += to - from;
+                    continue;
+                }
+                for (int i = to - 1; i >= from; i--) {
+                    int doc = postings.docs[i];
+                    if (anyDeleted && deleted.get(doc)) {
+                        continue;
+                    }
+                    total++;
+                    if (competitive) {
+                        top.offer(doc, bm25(idf, postings.freq(i), doc, lengthWeight));
+                    }
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Collect the documents containing the term, or for prefix terms any
+         * of its most frequent expansions
+         */
+        private Clause clause(QueryTerm queryTerm, float lengthWeight) {
+            List<Postings> matches = new ArrayList<>();
+            if (queryTerm.prefix()) {
+                NavigableMap<String, Postings> expansions =
+                        terms.subMap(queryTerm.text(), true, queryTerm.text() + Character.MAX_VALUE, false);
+                long postingCount = 0;
+                for (Postings postings : expansions.values().stream()
+                        .sorted(Comparator.comparingInt((Postings postings) -> postings.size).reversed())
+                        .limit(MAX_PREFIX_EXPANSIONS)
+                        .toList()) {
+                    if (matches.isEmpty() || postingCount + postings.size <= MAX_PREFIX_POSTINGS) {
+                        matches.add(postings);
+                        postingCount += postings.size;
+                    }
+                }
+            } else {
+                Postings postings = terms.get(queryTerm.text());
+                if (postings != null) {
+                    matches.add(postings);
+                }
+            }
+            if (matches.isEmpty()) {
+                return Clause.scored(new int[0], new float[0], 0);
+            }
+            if (matches.size() == 1) {
+                return Clause.of(matches.get(0), idf(matches.get(0).size));
+            }
+            long postingCount = matches.stream().mapToLong(postings -> postings.size).sum();
+            return postingCount * 32 > docCount
+                    ? denseUnion(matches, lengthWeight)
+                    : sparseUnion(matches, postingCount, lengthWeight);
+        }
+
+        /**
+         * Union of many postings, accumulating scores in an array indexed by ordinal
+         */
+        private Clause denseUnion(List<Postings> matches, float lengthWeight) {
+            float[] accumulated = scratch.poll();
+            if (accumulated == null || accumulated.length < docCount) {
+                accumulated = new float[docCount];
+            }
+            BitSet matched = new BitSet(docCount);
+            for (Postings postings : matches) {
+                float idf = idf(postings.size);
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    accumulated[doc] += bm25(idf, postings.freq(i), doc, lengthWeight);
+                    matched.set(doc);
+                }
+            }
+            return Clause.dense(accumulated, matched);
+        }
+
+        /**
+         * Return the accumulator of a dense union to the pool, cleared
+         */
+        private void release(Clause clause) {
+            if (clause.denseScores == null) {
+                return;
+            }
+            BitSet docs = clause.denseDocs;
+            if (clause.size > docCount / 32) {
+                Arrays.fill(clause.denseScores, 0, docCount, 0);
+            } else {
+                for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                    clause.denseScores[doc] = 0;
+                }
+            }
+            scratch.offer(clause.denseScores);
+        }
+
+        /**
+         * Union of a few short postings: sort (ordinal, score) pairs packed into longs
+         * and merge equal ordinals
+         */
+        private Clause sparseUnion(List<Postings> matches, long postingCount, float lengthWeight) {
+            long[] packed = new long[(int) postingCount];
+            int count = 0;
+            for (Postings postings : matches) {
+                float idf = idf(postings.size);
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    float score = bm25(idf, postings.freq(i), doc, lengthWeight);
+                    packed[count++] = ((long) doc << 32) | (Float.floatToRawIntBits(score) & 0xFFFFFFFFL);
+                }
+            }
+            Arrays.sort(packed);
+            int[] docs = new int[count];
+            float[] scores = new float[count];
+            int size = 0;
+            for (long entry : packed) {
+                int doc = (int) (entry >>> 32);
+                float score = Float.intBitsToFloat((int) entry);
+                if (size > 0 && docs[size - 1] == doc) {
+                    scores[size - 1] += score;
+                } else {
+                    docs[size] = doc;
+                    scores[size++] = score;
+                }
+            }
+            return Clause.scored(docs, scores, size);
+        }
+
+        private float idf(int documentFrequency) {
+            return (float) Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        float bm25(float idf, int frequency, int doc, float lengthWeight) {
+            return score(idf, frequency, lengths[doc], lengthWeight);
+        }
+
+        private static float score(float idf, int frequency, int length, float lengthWeight) {
+            float norm = K1 * (1 - B) + lengthWeight * length;
+            return idf * frequency * (K1 + 1) / (frequency + norm);
+        }
+    }
+
+    /**
+     * Bounded min-heap keeping the best scoring documents; ties favour newer documents
+     */
+    private static final class TopDocs {
+        private final int capacity;
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        TopDocs(int capacity) {
+            this.capacity = capacity;
+            this.docs = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        float minScore() {
+            return scores[0];
+        }
+
+        void offer(int doc, float score) {
+            if (size < capacity) {
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (better(doc, score, 0)) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * @return documents ordered from best to worst
+         */
+        int[] sorted() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = docs[0];
+                docs[0] = docs[i];
+                scores[0] = scores[i];
+                size = i;
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private boolean better(int doc, float score, int index) {
+            return score > scores[index] || (score == scores[index] && doc > docs[index]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!better(docs[parent], scores[parent], index)) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && better(docs[smallest], scores[smallest], left)) {
+                    smallest = left;
+                }
+                if (right < size && better(docs[smallest], scores[smallest], right)) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            float score = scores[a];
+            docs[a] = docs[b];
+            scores[a] = scores[b];
+            docs[b] = doc;
+            scores[b] = score;
+        }
+    }
+}
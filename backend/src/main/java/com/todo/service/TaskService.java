@@ -1,29 +1,70 @@
 package com.todo.service;
 
+import com.todo.datasource.ReadRouting;
+import com.todo.dto.TaskBulkItemResultDto;
+import com.todo.dto.TaskBulkResultDto;
+import com.todo.dto.TaskChangedEvent;
 import com.todo.dto.TaskCreateDto;
+import com.todo.dto.TaskPageDto;
 import com.todo.dto.TaskResponseDto;
+import com.todo.dto.TaskSearchResultDto;
+import com.todo.dto.TaskStatsDto;
+import com.todo.dto.TaskView;
+import com.todo.exception.BadRequestException;
 import com.todo.exception.ResourceNotFoundException;
+import com.todo.exception.ServiceUnavailableException;
 import com.todo.model.Task;
-import com.todo.repository.TaskRepository;
+import com.todo.outbox.TaskOutbox;
+import com.todo.repository.TaskStore;
+import com.todo.repository.TaskSummary;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Service class for Task operations
  */
 @Service
+@Timed("todo.task.service")
 @RequiredArgsConstructor
 @Slf4j
 public class TaskService {
     
-    private static final int MAX_RECENT_TASKS = 5;
-    private final TaskRepository taskRepository;
+    static final int MAX_RECENT_TASKS = 5;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_BULK_TASKS = 100_000;
+    static final int MAX_IDS_PER_STATEMENT = 1_000;
+    static final int MAX_SEARCH_RESULTS = 1_000;
+    private final TaskStore taskStore;
+    private final RecentTasksCache recentTasksCache;
+    private final RecentTasksIndex recentTasksIndex;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskVersion taskVersion;
+    private final TaskCounters taskCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskOutbox taskOutbox;
+    private final Validator validator;
     
     /**
      * Get the most recent 5 incomplete tasks
@@ -31,12 +72,20 @@ public class TaskService {
      */
     @Transactional(readOnly = true)
     public List<TaskResponseDto> getRecentTasks() {
-        log.debug("Fetching recent {} incomplete tasks", MAX_RECENT_TASKS);
-        List<Task> tasks = taskRepository.findRecentIncompleteTasks(
-            PageRequest.of(0, MAX_RECENT_TASKS)
-        );
-        return tasks.stream()
-                .map(this::convertToDto)
+        return recentTasksCache.get(() -> {
+            log.debug("Fetching recent {} incomplete tasks", MAX_RECENT_TASKS);
+            return recentTasksIndex.getRecentTasks(MAX_RECENT_TASKS);
+        });
+    }
+    
+    /**
+     * Get the most recent 5 incomplete tasks without their descriptions
+     * @return list of task response DTOs in summary view
+     */
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> getRecentTaskSummaries() {
+        return getRecentTasks().stream()
+                .map(TaskService::toSummary)
                 .collect(Collectors.toList());
     }
     
@@ -54,10 +103,80 @@ public class TaskService {
         task.setDescription(taskCreateDto.getDescription());
         task.setCompleted(false);
         
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = taskStore.save(task);
         log.info("Task created successfully with id: {}", savedTask.getId());
         
-        return convertToDto(savedTask);
+        TaskResponseDto dto = convertToDto(savedTask);
+        TaskChangedEvent event = TaskChangedEvent.created(dto);
+        taskOutbox.append(event);
+        afterCommit(() -> {
+            recentTasksIndex.onTaskCreated(dto);
+            recentTasksCache.onTaskCreated(dto);
+            taskSearchIndex.add(dto);
+            taskCounters.onCreated(1);
+            taskVersion.increment();
+            eventPublisher.publishEvent(event);
+        });
+        return dto;
+    }
+    
+    /**
+     * Create many tasks at once. Every item is validated; valid items are
+     * inserted with JDBC batches in a single transaction and invalid ones are
+     * reported back without being stored.
+     * @param taskCreateDtos task creation data
+     * @return per-item results in request order
+     */
+    @Transactional
+    public List<TaskBulkItemResultDto> createTasks(List<TaskCreateDto> taskCreateDtos) {
+        if (taskCreateDtos.size() > MAX_BULK_TASKS) {
+            throw new BadRequestException("A bulk request may contain at most " + MAX_BULK_TASKS + " tasks");
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Creating {} tasks in bulk", taskCreateDtos.size());
+        }
+        long startNanos = System.nanoTime();
+        
+        TaskBulkItemResultDto[] results = new TaskBulkItemResultDto[taskCreateDtos.size()];
+        List<Task> tasks = new ArrayList<>(taskCreateDtos.size());
+        List<Integer> taskIndexes = new ArrayList<>(taskCreateDtos.size());
+        for (int i = 0; i < taskCreateDtos.size(); i++) {
+            TaskCreateDto taskCreateDto = taskCreateDtos.get(i);
+            Map<String, String> errors = validate(taskCreateDto);
+            if (!errors.isEmpty()) {
+                results[i] = TaskBulkItemResultDto.rejected(i, errors);
+                continue;
+            }
+            Task task = new Task();
+            task.setTitle(taskCreateDto.getTitle());
+            task.setDescription(taskCreateDto.getDescription());
+            task.setCompleted(false);
+            tasks.add(task);
+            taskIndexes.add(i);
+        }
+        
+        taskStore.insertAll(tasks);
+        List<TaskResponseDto> created = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskResponseDto dto = convertToDto(tasks.get(i));
+            created.add(dto);
+            results[taskIndexes.get(i)] = TaskBulkItemResultDto.created(taskIndexes.get(i), dto);
+        }
+        TaskChangedEvent event = TaskChangedEvent.of(TaskChangedEvent.Type.CREATED,
+                created.stream().map(TaskResponseDto::getId).toList());
+        taskOutbox.append(event);
+        afterCommit(() -> {
+            recentTasksIndex.onTasksCreated(created);
+            recentTasksCache.invalidate();
+            taskSearchIndex.addAll(created);
+            taskCounters.onCreated(created.size());
+            taskVersion.increment();
+            eventPublisher.publishEvent(event);
+        });
+        
+        log.info("Bulk created {} of {} tasks in {} ms", created.size(), taskCreateDtos.size(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return List.of(results);
     }
     
     /**
@@ -69,14 +188,49 @@ public class TaskService {
     public TaskResponseDto markTaskAsCompleted(Long taskId) {
         log.debug("Marking task {} as completed", taskId);
         
-        Task task = taskRepository.findById(taskId)
+        // Guarded single-row update that evicts only this task from the entity cache;
+        // a repeated or concurrent completion updates nothing
+        int updated = taskStore.completeIfIncomplete(taskId, LocalDateTime.now());
+        // Full view, description included, on both paths; with no row updated
+        // it also tells "already completed" apart from "not found"
+        Task completed = taskStore.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", taskId));
         
-        task.setCompleted(true);
-        Task updatedTask = taskRepository.save(task);
-        
-        log.info("Task {} marked as completed", taskId);
-        return convertToDto(updatedTask);
+        if (updated > 0) {
+            TaskChangedEvent event = TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, List.of(taskId));
+            taskOutbox.append(event);
+            afterCommit(() -> {
+                recentTasksIndex.onTaskRemoved(taskId);
+                recentTasksCache.onTaskRemoved(taskId);
+                taskCounters.onCompleted(1);
+                taskVersion.increment();
+                eventPublisher.publishEvent(event);
+            });
+            log.info("Task {} marked as completed", taskId);
+        } else {
+            log.debug("Task {} was already completed", taskId);
+        }
+        return convertToDto(completed);
+    }
+    
+    /**
+     * Mark many tasks as completed with set-based updates. Tasks that are
+     * already completed are left untouched.
+     * @param taskIds task IDs
+     * @return counts and the IDs that do not exist
+     */
+    @Transactional
+    public TaskBulkResultDto completeTasks(List<Long> taskIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("Marking {} tasks as completed in bulk", taskIds.size());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        TaskBulkResultDto result = applyInChunks(taskIds, TaskChangedEvent.Type.COMPLETED,
+                summary -> !Boolean.TRUE.equals(summary.getCompleted()),
+                chunk -> taskStore.completeAllByIdIn(chunk, now));
+        afterCommit(() -> taskCounters.onCompleted(result.getAffected()));
+        log.info("Bulk completed {} of {} tasks", result.getAffected(), result.getRequested());
+        return result;
     }
     
     /**
@@ -87,11 +241,47 @@ public class TaskService {
     @Transactional(readOnly = true)
     public TaskResponseDto getTaskById(Long taskId) {
         log.debug("Fetching task with id: {}", taskId);
-        Task task = taskRepository.findById(taskId)
+        Task task = taskStore.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", taskId));
         return convertToDto(task);
     }
     
+    /**
+     * Get task counts by state from the in-memory counters
+     * @return task statistics
+     */
+    public TaskStatsDto getTaskStats() {
+        return taskCounters.getStats();
+    }
+    
+    /**
+     * Get the entity tag of the task list responses. Callers read it before
+     * the list, so a concurrent write can make the tag older than the body
+     * but never newer.
+     * @return unquoted entity tag
+     */
+    public String getTasksETag() {
+        return taskVersion.getETag();
+    }
+    
+    /**
+     * Get the entity tag of a task from its update time and completion state.
+     * The task comes from the second-level cache when present, so revalidating
+     * a frequently read task needs no query.
+     * @param taskId task ID
+     * @return unquoted entity tag
+     */
+    @Transactional(readOnly = true)
+    public String getTaskETag(Long taskId) {
+        Task task = taskStore.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", taskId));
+        LocalDateTime version = task.getUpdatedAt() != null ? task.getUpdatedAt() : task.getCreatedAt();
+        long micros = version == null ? 0
+                : version.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + version.getNano() / 1_000;
+        return "task-" + task.getId() + "-" + Long.toString(micros, Character.MAX_RADIX)
+                + (Boolean.TRUE.equals(task.getCompleted()) ? "-c" : "-o");
+    }
+    
     /**
      * Get all tasks (for testing purposes)
      * @return list of all tasks
@@ -99,11 +289,96 @@ public class TaskService {
     @Transactional(readOnly = true)
     public List<TaskResponseDto> getAllTasks() {
         log.debug("Fetching all tasks");
-        return taskRepository.findAll().stream()
-                .map(this::convertToDto)
+        return taskStore.findAll().stream()
+                .map(TaskService::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get a page of tasks (newest first) using keyset pagination
+     * @param after cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of tasks to return
+     * @param view level of detail; the summary view does not read descriptions
+     * @return page of task response DTOs with the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public TaskPageDto getTasksPage(String after, int limit, TaskView view) {
+        // Pages are revalidated against the in-memory write counter, which a lagging replica cannot honour
+        return ReadRouting.onPrimary(() -> readTasksPage(after, limit, view));
+    }
+    
+    private TaskPageDto readTasksPage(String after, int limit, TaskView view) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching {} page of {} tasks after cursor {}", view, pageSize, after);
+        }
+        
+        // Fetch one extra row to find out whether another page follows
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        TaskCursor cursor = after == null || after.isBlank() ? null : TaskCursor.decode(after);
+        List<TaskResponseDto> tasks;
+        if (view == TaskView.SUMMARY) {
+            List<TaskSummary> summaries = cursor == null
+                    ? taskStore.findFirstPageSummaries(pageRequest)
+                    : taskStore.findPageSummariesAfter(cursor.createdAt(), cursor.id(), pageRequest);
+            tasks = summaries.stream().map(TaskService::convertToDto).collect(Collectors.toList());
+        } else {
+            List<Task> entities = cursor == null
+                    ? taskStore.findFirstPage(pageRequest)
+                    : taskStore.findPageAfter(cursor.createdAt(), cursor.id(), pageRequest);
+            tasks = entities.stream().map(TaskService::convertToDto).collect(Collectors.toList());
+        }
+        
+        boolean hasMore = tasks.size() > pageSize;
+        List<TaskResponseDto> items = hasMore ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = null;
+        if (hasMore) {
+            TaskResponseDto last = items.get(items.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new TaskPageDto(items, nextCursor, hasMore);
+    }
+    
+    /**
+     * Search task titles and descriptions. Ranking and matching come from
+     * the in-memory index; the returned tasks are read from the repository
+     * without descriptions.
+     * @param query free text; every term must match and the last one may be a prefix
+     * @param page zero-based page number
+     * @param size page size
+     * @return page of matching tasks, best match first
+     */
+    @Transactional(readOnly = true)
+    public TaskSearchResultDto searchTasks(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+        if ((long) (pageNumber + 1) * pageSize > MAX_SEARCH_RESULTS) {
+            throw new BadRequestException("Only the first " + MAX_SEARCH_RESULTS + " search results can be paged through");
+        }
+        if (!taskSearchIndex.isReady()) {
+            throw new ServiceUnavailableException("Search index is still loading");
+        }
+        log.debug("Searching tasks for: {}", query);
+        
+        TaskSearchIndex.Hits hits = taskSearchIndex.search(query, pageNumber * pageSize, pageSize);
+        List<TaskResponseDto> items = List.of();
+        if (!hits.taskIds().isEmpty()) {
+            Map<Long, TaskSummary> summaries = taskStore.findSummariesByIdIn(hits.taskIds()).stream()
+                    .collect(Collectors.toMap(TaskSummary::getId, Function.identity()));
+            // Keep the index ranking; a task deleted since the search is skipped
+            items = hits.taskIds().stream()
+                    .map(summaries::get)
+                    .filter(Objects::nonNull)
+                    .map(TaskService::convertToDto)
+                    .collect(Collectors.toList());
+        }
+        boolean hasMore = (long) (pageNumber + 1) * pageSize < hits.total();
+        return new TaskSearchResultDto(items, hits.total(), pageNumber, pageSize, hasMore);
+    }
+    
     /**
      * Delete a task
      * @param taskId task ID
@@ -111,19 +386,143 @@ public class TaskService {
     @Transactional
     public void deleteTask(Long taskId) {
         log.debug("Deleting task with id: {}", taskId);
-        if (!taskRepository.existsById(taskId)) {
+        // Same statements as deleteTasks: the first one to delete the row tells its state
+        List<Long> ids = List.of(taskId);
+        boolean incomplete = taskStore.deleteIncompleteByIdIn(ids) > 0;
+        if (!incomplete && taskStore.deleteAllByIdIn(ids) == 0) {
             throw new ResourceNotFoundException("Task", taskId);
         }
-        taskRepository.deleteById(taskId);
+        TaskChangedEvent event = TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, List.of(taskId));
+        taskOutbox.append(event);
+        afterCommit(() -> {
+            recentTasksIndex.onTaskRemoved(taskId);
+            recentTasksCache.onTaskRemoved(taskId);
+            taskSearchIndex.removeAll(List.of(taskId));
+            taskCounters.onDeleted(incomplete ? 1 : 0, incomplete ? 0 : 1);
+            taskVersion.increment();
+            eventPublisher.publishEvent(event);
+        });
         log.info("Task {} deleted successfully", taskId);
     }
     
+    /**
+     * Delete many tasks with set-based deletes
+     * @param taskIds task IDs
+     * @return counts and the IDs that do not exist
+     */
+    @Transactional
+    public TaskBulkResultDto deleteTasks(List<Long> taskIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("Deleting {} tasks in bulk", taskIds.size());
+        }
+        // Incomplete tasks go first so the counters know how many of each state were deleted
+        int[] incompleteDeleted = {0};
+        TaskBulkResultDto result = applyInChunks(taskIds, TaskChangedEvent.Type.DELETED, summary -> true, chunk -> {
+            int incomplete = taskStore.deleteIncompleteByIdIn(chunk);
+            incompleteDeleted[0] += incomplete;
+            return incomplete + taskStore.deleteAllByIdIn(chunk);
+        });
+        afterCommit(() -> taskCounters.onDeleted(incompleteDeleted[0], result.getAffected() - incompleteDeleted[0]));
+        log.info("Bulk deleted {} of {} tasks", result.getAffected(), result.getRequested());
+        return result;
+    }
+    
+    /**
+     * Run a set-based statement over de-duplicated IDs in bounded IN lists,
+     * collecting the IDs that do not exist. Entities are never loaded. Only
+     * the tasks the statement changes are published, and nothing is when
+     * none of them changes.
+     * @param taskIds task IDs
+     * @param change change event to publish for the changed IDs
+     * @param target which existing tasks the statement changes
+     * @param statement modifying statement returning the affected row count
+     * @return counts and the IDs that do not exist
+     */
+    private TaskBulkResultDto applyInChunks(List<Long> taskIds, TaskChangedEvent.Type change,
+                                            Predicate<TaskSummary> target,
+                                            Function<List<Long>, Integer> statement) {
+        List<Long> uniqueIds = List.copyOf(new LinkedHashSet<>(taskIds));
+        if (uniqueIds.size() > MAX_BULK_TASKS) {
+            throw new BadRequestException("A bulk request may contain at most " + MAX_BULK_TASKS + " tasks");
+        }
+        int affected = 0;
+        List<Long> missingIds = new ArrayList<>();
+        List<Long> changedIds = new ArrayList<>(uniqueIds.size());
+        for (int from = 0; from < uniqueIds.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<Long> chunk = uniqueIds.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, uniqueIds.size()));
+            Map<Long, TaskSummary> existing = taskStore.findSummariesByIdIn(chunk).stream()
+                    .collect(Collectors.toMap(TaskSummary::getId, Function.identity()));
+            List<Long> targets = new ArrayList<>(existing.size());
+            for (Long id : chunk) {
+                TaskSummary summary = existing.get(id);
+                if (summary == null) {
+                    missingIds.add(id);
+                } else if (target.test(summary)) {
+                    targets.add(id);
+                }
+            }
+            if (!targets.isEmpty()) {
+                affected += statement.apply(List.copyOf(targets));
+                changedIds.addAll(targets);
+            }
+        }
+        if (!changedIds.isEmpty()) {
+            TaskChangedEvent event = TaskChangedEvent.of(change, changedIds);
+            taskOutbox.append(event);
+            afterCommit(() -> {
+                recentTasksIndex.onTasksRemoved(changedIds);
+                recentTasksCache.invalidate();
+                if (change == TaskChangedEvent.Type.DELETED) {
+                    taskSearchIndex.removeAll(changedIds);
+                }
+                taskVersion.increment();
+                eventPublisher.publishEvent(event);
+            });
+        }
+        return new TaskBulkResultDto(uniqueIds.size(), affected, missingIds);
+    }
+    
+    /**
+     * Validate task creation data
+     * @param taskCreateDto task creation data, possibly null
+     * @return validation errors by field name; empty when valid
+     */
+    private Map<String, String> validate(TaskCreateDto taskCreateDto) {
+        if (taskCreateDto == null) {
+            return Map.of("task", "Task is required");
+        }
+        Set<ConstraintViolation<TaskCreateDto>> violations = validator.validate(taskCreateDto);
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<TaskCreateDto> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+    
+    /**
+     * Run an action once the current transaction commits, or immediately
+     * when no transaction is active
+     * @param action action to run
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
     /**
      * Convert Task entity to TaskResponseDto
      * @param task task entity
      * @return task response DTO
      */
-    private TaskResponseDto convertToDto(Task task) {
+    static TaskResponseDto convertToDto(Task task) {
         TaskResponseDto dto = new TaskResponseDto();
         dto.setId(task.getId());
         dto.setTitle(task.getTitle());
@@ -133,4 +532,29 @@ public class TaskService {
         dto.setUpdatedAt(task.getUpdatedAt());
         return dto;
     }
+    
+    /**
+     * Copy a task response DTO without its description
+     * @param task task response DTO
+     * @return task response DTO in summary view
+     */
+    static TaskResponseDto toSummary(TaskResponseDto task) {
+        return new TaskResponseDto(task.getId(), task.getTitle(), null,
+                task.getCompleted(), task.getCreatedAt(), task.getUpdatedAt());
+    }
+    
+    /**
+     * Convert TaskSummary projection to TaskResponseDto without a description
+     * @param task task summary projection
+     * @return task response DTO
+     */
+    static TaskResponseDto convertToDto(TaskSummary task) {
+        TaskResponseDto dto = new TaskResponseDto();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setCompleted(task.getCompleted());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        return dto;
+    }
 }
@@ -0,0 +1,181 @@
+package com.todo.storage;
+
+import com.todo.model.Task;
+import com.todo.repository.TaskCounts;
+import com.todo.repository.TaskStore;
+import com.todo.repository.TaskSummary;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskStore} backed by the {@link EmbeddedTaskStore}, so TaskService
+ * runs unchanged on either engine. Returned tasks are detached copies;
+ * changes reach the store only through save. Pages use only the page size
+ * of the given Pageable.
+ */
+@Timed("todo.task.repository")
+@RequiredArgsConstructor
+public class EmbeddedTaskRepository implements TaskStore {
+
+    private final EmbeddedTaskStore store;
+
+    @Override
+    public <S extends Task> S save(S task) {
+        store.save(task);
+        return task;
+    }
+
+    @Override
+    public List<Task> insertAll(List<Task> tasks) {
+        return store.insert(tasks);
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return store.find(id, true);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        try (Stream<Task> tasks = store.streamById(true)) {
+            return tasks.toList();
+        }
+    }
+
+    @Override
+    public TaskCounts countTasks() {
+        long total = store.count();
+        long incomplete = store.countIncomplete();
+        return new TaskCounts() {
+            @Override
+            public long getTotal() {
+                return total;
+            }
+
+            @Override
+            public long getIncomplete() {
+                return incomplete;
+            }
+        };
+    }
+
+    @Override
+    public List<Task> findRecentIncompleteTasks(Pageable pageable) {
+        return store.newestFirst(true, null, null, pageable.getPageSize(), true);
+    }
+
+    @Override
+    public List<Task> findFirstPage(Pageable pageable) {
+        return store.newestFirst(false, null, null, pageable.getPageSize(), true);
+    }
+
+    @Override
+    public List<TaskSummary> findFirstPageSummaries(Pageable pageable) {
+        return summaries(store.newestFirst(false, null, null, pageable.getPageSize(), false));
+    }
+
+    @Override
+    public List<Task> findPageAfter(LocalDateTime createdAt, Long id, Pageable pageable) {
+        return store.newestFirst(false, createdAt, id, pageable.getPageSize(), true);
+    }
+
+    @Override
+    public List<TaskSummary> findPageSummariesAfter(LocalDateTime createdAt, Long id, Pageable pageable) {
+        return summaries(store.newestFirst(false, createdAt, id, pageable.getPageSize(), false));
+    }
+
+    @Override
+    public Stream<Task> streamForExport(Boolean completed, LocalDateTime since) {
+        return store.streamById(true)
+                .filter(task -> completed == null || completed.equals(task.getCompleted()))
+                .filter(task -> since == null
+                        || (task.getUpdatedAt() != null && !task.getUpdatedAt().isBefore(since)));
+    }
+
+    @Override
+    public void forEachTaskText(TaskTextConsumer consumer) {
+        try (Stream<Task> tasks = store.streamById(true)) {
+            tasks.forEach(task -> consumer.accept(task.getId(), task.getTitle(), task.getDescription()));
+        }
+    }
+
+    @Override
+    public Optional<TaskSummary> findSummaryById(Long id) {
+        return store.find(id, false).map(Summary::of);
+    }
+
+    @Override
+    public List<TaskSummary> findSummariesByIdIn(Collection<Long> ids) {
+        return ids.stream()
+                .distinct()
+                .map(id -> store.find(id, false))
+                .flatMap(Optional::stream)
+                .<TaskSummary>map(Summary::of)
+                .toList();
+    }
+
+    @Override
+    public int completeIfIncomplete(Long id, LocalDateTime updatedAt) {
+        return store.complete(List.of(id), updatedAt);
+    }
+
+    @Override
+    public int completeAllByIdIn(Collection<Long> ids, LocalDateTime updatedAt) {
+        return store.complete(ids, updatedAt);
+    }
+
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        return store.delete(ids, false);
+    }
+
+    @Override
+    public int deleteIncompleteByIdIn(Collection<Long> ids) {
+        return store.delete(ids, true);
+    }
+
+    private static List<TaskSummary> summaries(List<Task> tasks) {
+        return tasks.stream().<TaskSummary>map(Summary::of).toList();
+    }
+
+    private record Summary(Long id, String title, Boolean completed, LocalDateTime createdAt,
+                           LocalDateTime updatedAt) implements TaskSummary {
+
+        static Summary of(Task task) {
+            return new Summary(task.getId(), task.getTitle(), task.getCompleted(), task.getCreatedAt(),
+                    task.getUpdatedAt());
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public Boolean getCompleted() {
+            return completed;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
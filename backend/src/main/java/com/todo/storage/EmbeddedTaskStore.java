@@ -0,0 +1,1092 @@
+package com.todo.storage;
+
+import com.todo.journal.TaskJournal.FsyncPolicy;
+import com.todo.model.Task;
+import com.todo.util.LongIntMap;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Embedded storage engine for tasks, used instead of the database when
+ * {@code todo.storage.engine=embedded}.
+ * <p>
+ * Tasks are held in columns indexed by slot: primitive arrays for IDs,
+ * timestamps (epoch microseconds) and the completed flag, and UTF-8 byte
+ * arrays for the texts. An open-addressing map resolves an ID to its slot
+ * without boxing, and two ordered indexes on (createdAt, id) serve the
+ * newest-first pages of all tasks and of the incomplete tasks.
+ * <p>
+ * Every change is appended to a log before it is applied; the fsync policy
+ * decides when the log is forced to disk, which happens outside the lock
+ * that readers and writers share. A snapshot of all tasks is written in the
+ * background once enough changes accumulated, after which older logs are
+ * deleted. Startup loads the snapshot and replays the logs written after
+ * it, up to the first damaged record.
+ * <p>
+ * Changes made inside a Spring transaction are buffered until it commits
+ * and discarded on rollback; lookups by ID in the transaction see them,
+ * while pages, streams and counts read committed tasks only. Buffering
+ * takes no exclusive lock, so transactions do not hold each other off; the
+ * write lock is taken only after the commit, to append and apply the
+ * changes. Those are then rebased on the tasks committed meanwhile: updates
+ * and completions of tasks deleted since, and completions of tasks
+ * completed since, are dropped, and the counts the writes returned may be
+ * off by those. Changes made outside a transaction are applied immediately.
+ * <p>
+ * The database transaction, and the outbox rows written in it, commit
+ * before the changes reach the log. If the append fails, for example
+ * because the store was closed, the error is logged and thrown to the
+ * caller, and the committed outbox events describe changes that were not
+ * made; consumers re-read the tasks an event names and find them
+ * unchanged.
+ */
+@Slf4j
+public class EmbeddedTaskStore implements MeterBinder {
+
+    static final byte PUT = 1;
+    static final byte COMPLETE = 2;
+    static final byte DELETE = 3;
+    static final byte CLEAR = 4;
+    private static final int SNAPSHOT_MAGIC = 0x54534B31;
+    private static final String SNAPSHOT_FILE = "tasks.snapshot";
+    private static final String LOG_PREFIX = "tasks-";
+    private static final String LOG_SUFFIX = ".log";
+    /** Record length and CRC32C before each log record body */
+    private static final int HEADER_BYTES = 8;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long snapshotMinChanges;
+
+    /** Guards the columns, indexes and the log */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Serializes forces and rotations of the log; taken after the other locks */
+    private final ReentrantLock forceLock = new ReentrantLock();
+    /** Allows one snapshot at a time */
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private long[] ids = new long[1024];
+    private long[] createdAt = new long[1024];
+    private long[] updatedAt = new long[1024];
+    private byte[][] titles = new byte[1024][];
+    private byte[][] descriptions = new byte[1024][];
+    private BitSet completed = new BitSet();
+    /** Slots in use or freed so far; free slots have ID 0 */
+    private int slotCount;
+    private int[] freeSlots = new int[64];
+    private int freeSlotCount;
+    private final LongIntMap slotsById = new LongIntMap(1024);
+    private final NavigableSet<OrderKey> all = new TreeSet<>();
+    private final NavigableSet<OrderKey> incomplete = new TreeSet<>();
+    /** Next ID to hand out; taken while buffering under the read lock */
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private volatile FileChannel logChannel;
+    private long logGeneration;
+    private long changesSinceSnapshot;
+    /** Bytes appended to the logs since the store was opened */
+    private volatile long appendedBytes;
+    /** Appended bytes known to be on disk; guarded by forceLock */
+    private long forcedBytes;
+    private volatile boolean closed;
+
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+
+    /**
+     * Open the store, loading the latest snapshot and replaying the logs after it
+     * @param directory data directory, created when missing
+     * @param fsyncPolicy when the log is forced to disk
+     * @param snapshotMinChanges changes after which a scheduled snapshot is written
+     */
+    public EmbeddedTaskStore(Path directory, FsyncPolicy fsyncPolicy, long snapshotMinChanges) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.snapshotMinChanges = Math.max(snapshotMinChanges, 1);
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the task store in " + directory, ex);
+        }
+    }
+
+    /**
+     * Insert new tasks with one log write; IDs and timestamps are set on the given tasks
+     * @param tasks tasks without IDs
+     * @return the same tasks
+     */
+    public List<Task> insert(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return write(batch -> {
+            tasks.forEach(task -> insert(batch, task, now));
+            return tasks;
+        });
+    }
+
+    /**
+     * Insert a task, or update the title, description and completion state
+     * of an existing one. Like an entity save, the creation time of an
+     * existing task is kept and the update time is set; the given task is
+     * updated with the stored values.
+     * @param task task to save
+     * @return the same task
+     */
+    public Task save(Task task) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return write(batch -> {
+            Row current = task.getId() == null ? null : batch.get(task.getId());
+            if (current == null) {
+                insert(batch, task, now);
+                return task;
+            }
+            boolean done = Boolean.TRUE.equals(task.getCompleted());
+            batch.add(new Put(task.getId(), new Row(utf8(task.getTitle()), utf8(task.getDescription()), done,
+                    current.createdAt(), toMicros(now)), true));
+            task.setCompleted(done);
+            task.setCreatedAt(fromMicros(current.createdAt()));
+            task.setUpdatedAt(now);
+            return task;
+        });
+    }
+
+    /**
+     * @param id task ID
+     * @param withDescription whether to read the description
+     * @return a copy of the task
+     */
+    public Optional<Task> find(long id, boolean withDescription) {
+        Pending pending = pending(false);
+        lock.readLock().lock();
+        try {
+            Row row = pending != null ? pending.batch.get(id) : committed(id);
+            return row == null ? Optional.empty() : Optional.of(task(id, row, withDescription));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean exists(long id) {
+        Pending pending = pending(false);
+        lock.readLock().lock();
+        try {
+            return (pending != null ? pending.batch.get(id) : committed(id)) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mark incomplete tasks as completed
+     * @param taskIds task IDs; unknown and completed ones are skipped
+     * @param when update timestamp to set
+     * @return number of tasks that changed state
+     */
+    public int complete(Collection<Long> taskIds, LocalDateTime when) {
+        long micros = toMicros(when.truncatedTo(ChronoUnit.MICROS));
+        return write(batch -> {
+            int changed = 0;
+            for (Long id : taskIds) {
+                Row row = id == null ? null : batch.get(id);
+                if (row != null && !row.done()) {
+                    batch.add(new Complete(id, micros));
+                    changed++;
+                }
+            }
+            return changed;
+        });
+    }
+
+    /**
+     * Delete tasks
+     * @param taskIds task IDs; unknown ones are skipped
+     * @param incompleteOnly whether to delete only the incomplete ones
+     * @return number of deleted tasks
+     */
+    public int delete(Collection<Long> taskIds, boolean incompleteOnly) {
+        return write(batch -> {
+            int deleted = 0;
+            for (Long id : taskIds) {
+                Row row = id == null ? null : batch.get(id);
+                if (row != null && !(incompleteOnly && row.done())) {
+                    batch.add(new Delete(id));
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Delete all tasks
+     */
+    public void clear() {
+        write(batch -> {
+            batch.add(new Clear());
+            return null;
+        });
+    }
+
+    /**
+     * Read tasks newest first, by creation time and then ID
+     * @param incompleteOnly whether to read only incomplete tasks
+     * @param beforeCreatedAt creation time of the last task of the previous page, or null for the first page
+     * @param beforeId ID of the last task of the previous page
+     * @param limit maximum number of tasks
+     * @param withDescription whether to read descriptions
+     * @return copies of the tasks
+     */
+    public List<Task> newestFirst(boolean incompleteOnly, LocalDateTime beforeCreatedAt, Long beforeId,
+                                  int limit, boolean withDescription) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<OrderKey> index = incompleteOnly ? incomplete : all;
+            if (beforeCreatedAt != null) {
+                index = index.headSet(new OrderKey(toMicros(beforeCreatedAt), beforeId), false);
+            }
+            List<Task> page = new ArrayList<>(Math.min(limit, index.size()));
+            for (Iterator<OrderKey> keys = index.descendingIterator(); keys.hasNext() && page.size() < limit; ) {
+                page.add(read(slotsById.get(keys.next().id()), withDescription));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stream tasks in ID order. IDs are captured when the stream is created;
+     * tasks are read as the stream advances and skipped when deleted since.
+     * @param withDescription whether to read descriptions
+     * @return stream of task copies
+     */
+    public Stream<Task> streamById(boolean withDescription) {
+        long[] sorted;
+        lock.readLock().lock();
+        try {
+            sorted = new long[all.size()];
+            int count = 0;
+            for (OrderKey key : all) {
+                sorted[count++] = key.id();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(sorted);
+        return Arrays.stream(sorted)
+                .mapToObj(id -> findCommitted(id, withDescription))
+                .flatMap(Optional::stream);
+    }
+
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return all.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countIncomplete() {
+        lock.readLock().lock();
+        try {
+            return incomplete.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write a snapshot when enough changes accumulated since the last one
+     */
+    @Scheduled(fixedDelayString = "${todo.storage.embedded.snapshot-interval-ms:60000}",
+               initialDelayString = "${todo.storage.embedded.snapshot-interval-ms:60000}")
+    public void snapshotIfDue() {
+        long changes;
+        lock.readLock().lock();
+        try {
+            changes = changesSinceSnapshot;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (changes >= snapshotMinChanges) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Write a snapshot of all tasks and delete the logs it covers. Writers
+     * are blocked only while the columns are copied and the log is rotated.
+     */
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            Columns columns;
+            long generation;
+            lock.writeLock().lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                columns = new Columns(ids.clone(), createdAt.clone(), updatedAt.clone(), titles.clone(),
+                        descriptions.clone(), (BitSet) completed.clone(), slotCount, nextId.get());
+                generation = openLog(logGeneration + 1);
+                changesSinceSnapshot = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            writeSnapshot(columns, generation);
+            deleteLogsBefore(generation);
+            snapshots.increment();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write a task store snapshot in " + directory, ex);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Force the log to disk when the interval policy is used
+     */
+    @Scheduled(fixedDelayString = "${todo.storage.embedded.fsync-interval-ms:100}")
+    public void flush() {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            force(appendedBytes);
+        }
+    }
+
+    /**
+     * Snapshot and close the log; later writes fail
+     */
+    @PreDestroy
+    public void close() {
+        if (closed) {
+            return;
+        }
+        snapshot();
+        lock.writeLock().lock();
+        forceLock.lock();
+        try {
+            closed = true;
+            if (fsyncPolicy != FsyncPolicy.OS) {
+                logChannel.force(false);
+            }
+            logChannel.close();
+        } catch (IOException ex) {
+            log.warn("Could not close the task store log: {}", ex.getMessage());
+        } finally {
+            forceLock.unlock();
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.storage.embedded.tasks", this, EmbeddedTaskStore::count)
+                .description("Tasks in the embedded store")
+                .register(registry);
+        FunctionCounter.builder("todo.storage.embedded.snapshots", this, EmbeddedTaskStore::getSnapshotCount)
+                .description("Snapshots written by the embedded store")
+                .register(registry);
+        FunctionCounter.builder("todo.storage.embedded.fsyncs", fsyncs, LongAdder::sum)
+                .description("Forces of the embedded store log to disk")
+                .register(registry);
+    }
+
+    private record OrderKey(long createdAt, long id) implements Comparable<OrderKey> {
+
+        @Override
+        public int compareTo(OrderKey other) {
+            int byTime = Long.compare(createdAt, other.createdAt);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+
+    private record Columns(long[] ids, long[] createdAt, long[] updatedAt, byte[][] titles,
+                           byte[][] descriptions, BitSet completed, int slotCount, long nextId) {
+    }
+
+    /** Stored values of a task; timestamps in epoch microseconds */
+    private record Row(byte[] title, byte[] description, boolean done, long createdAt, long updatedAt) {
+    }
+
+    private sealed interface Change permits Put, Complete, Delete, Clear {
+    }
+
+    /** Insert or, when {@code update} is set, update of a task */
+    private record Put(long id, Row row, boolean update) implements Change {
+    }
+
+    private record Complete(long id, long updatedAt) implements Change {
+    }
+
+    private record Delete(long id) implements Change {
+    }
+
+    private record Clear() implements Change {
+    }
+
+    /**
+     * Changes of one write or transaction, and the tasks as they see them:
+     * the committed columns overlaid with the changes. Used under the lock.
+     */
+    private final class Batch {
+
+        private final List<Change> changes = new ArrayList<>();
+        /** Tasks changed by the batch; null for deleted ones */
+        private final Map<Long, Row> overlay = new HashMap<>();
+        private boolean cleared;
+
+        Row get(long id) {
+            if (overlay.containsKey(id)) {
+                return overlay.get(id);
+            }
+            return cleared ? null : committed(id);
+        }
+
+        void add(Change change) {
+            changes.add(change);
+            switch (change) {
+                case Put put -> overlay.put(put.id(), put.row());
+                case Complete complete -> {
+                    Row row = get(complete.id());
+                    overlay.put(complete.id(), new Row(row.title(), row.description(), true, row.createdAt(),
+                            complete.updatedAt()));
+                }
+                case Delete delete -> overlay.put(delete.id(), null);
+                case Clear clear -> {
+                    overlay.clear();
+                    cleared = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes buffered by a transaction, appended and applied once it commits
+     */
+    private final class Pending implements TransactionSynchronization {
+
+        private final Batch batch = new Batch();
+        private long appendedUpTo;
+
+        EmbeddedTaskStore store() {
+            return EmbeddedTaskStore.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (batch.changes.isEmpty()) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                appendedUpTo = apply(batch.changes);
+            } catch (RuntimeException ex) {
+                log.error("Could not apply {} committed changes to the task store; "
+                        + "outbox events of the transaction name changes that were not made", batch.changes.size(), ex);
+                throw ex;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (appendedUpTo > 0 && fsyncPolicy == FsyncPolicy.PER_WRITE) {
+                force(appendedUpTo);
+            }
+        }
+    }
+
+    /**
+     * Run a write against a batch: the current transaction's, buffered under
+     * the read lock, or a new one that is applied before returning
+     */
+    private <T> T write(Function<Batch, T> operation) {
+        Pending pending = pending(true);
+        if (pending != null) {
+            lock.readLock().lock();
+            try {
+                return operation.apply(pending.batch);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        T result;
+        long appendedUpTo;
+        lock.writeLock().lock();
+        try {
+            Batch batch = new Batch();
+            result = operation.apply(batch);
+            appendedUpTo = apply(batch.changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (fsyncPolicy == FsyncPolicy.PER_WRITE) {
+            force(appendedUpTo);
+        }
+        return result;
+    }
+
+    /**
+     * @param create whether to start buffering when the transaction has no changes yet
+     * @return changes of the current transaction, or null outside a transaction
+     */
+    private Pending pending(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Pending pending && pending.store() == this) {
+                return pending;
+            }
+        }
+        if (!create) {
+            return null;
+        }
+        Pending pending = new Pending();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Add an insert with a new ID to the batch and set the stored values on the task
+     */
+    private void insert(Batch batch, Task task, LocalDateTime now) {
+        boolean done = Boolean.TRUE.equals(task.getCompleted());
+        long id = nextId.getAndIncrement();
+        batch.add(new Put(id, new Row(utf8(task.getTitle()), utf8(task.getDescription()), done,
+                toMicros(now), toMicros(now)), false));
+        task.setId(id);
+        task.setCompleted(done);
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+    }
+
+    /**
+     * Append changes to the log and apply them, dropping those overtaken by
+     * changes committed since they were buffered; callers hold the write lock
+     * @return appended log bytes to force up to
+     */
+    private long apply(List<Change> buffered) {
+        Batch rebased = new Batch();
+        for (Change change : buffered) {
+            if (stillApplies(rebased, change)) {
+                rebased.add(change);
+            }
+        }
+        List<Change> changes = rebased.changes;
+        appendToLog(changes.stream().map(EmbeddedTaskStore::encode).toList());
+        for (Change change : changes) {
+            switch (change) {
+                case Put put -> applyPut(put.id(), put.row().title(), put.row().description(), put.row().done(),
+                        put.row().createdAt(), put.row().updatedAt());
+                case Complete complete -> {
+                    int slot = slotsById.get(complete.id());
+                    if (slot >= 0) {
+                        applyComplete(slot, complete.updatedAt());
+                    }
+                }
+                case Delete delete -> applyDelete(delete.id());
+                case Clear clear -> applyClear();
+            }
+        }
+        return appendedBytes;
+    }
+
+    private static boolean stillApplies(Batch batch, Change change) {
+        return switch (change) {
+            case Put put -> !put.update() || batch.get(put.id()) != null;
+            case Complete complete -> {
+                Row row = batch.get(complete.id());
+                yield row != null && !row.done();
+            }
+            case Delete delete -> batch.get(delete.id()) != null;
+            case Clear clear -> true;
+        };
+    }
+
+    // Columns and indexes; callers hold the write lock
+
+    private void applyPut(long id, byte[] title, byte[] description, boolean done, long created, long updated) {
+        int slot = slotsById.get(id);
+        if (slot < 0) {
+            slot = allocateSlot();
+            slotsById.put(id, slot);
+            ids[slot] = id;
+        } else {
+            all.remove(new OrderKey(createdAt[slot], id));
+            incomplete.remove(new OrderKey(createdAt[slot], id));
+        }
+        createdAt[slot] = created;
+        updatedAt[slot] = updated;
+        titles[slot] = title;
+        descriptions[slot] = description;
+        completed.set(slot, done);
+        OrderKey key = new OrderKey(created, id);
+        all.add(key);
+        if (!done) {
+            incomplete.add(key);
+        }
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+
+    private void applyComplete(int slot, long updated) {
+        completed.set(slot);
+        updatedAt[slot] = updated;
+        incomplete.remove(new OrderKey(createdAt[slot], ids[slot]));
+    }
+
+    private void applyDelete(long id) {
+        int slot = slotsById.remove(id);
+        if (slot < 0) {
+            return;
+        }
+        OrderKey key = new OrderKey(createdAt[slot], id);
+        all.remove(key);
+        incomplete.remove(key);
+        ids[slot] = 0;
+        titles[slot] = null;
+        descriptions[slot] = null;
+        completed.clear(slot);
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private void applyClear() {
+        Arrays.fill(ids, 0, slotCount, 0);
+        Arrays.fill(titles, 0, slotCount, null);
+        Arrays.fill(descriptions, 0, slotCount, null);
+        completed.clear();
+        slotsById.clear();
+        all.clear();
+        incomplete.clear();
+        slotCount = 0;
+        freeSlotCount = 0;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+        return slotCount++;
+    }
+
+    private Task read(int slot, boolean withDescription) {
+        return task(ids[slot], row(slot), withDescription);
+    }
+
+    private Row row(int slot) {
+        return new Row(titles[slot], descriptions[slot], completed.get(slot), createdAt[slot], updatedAt[slot]);
+    }
+
+    /**
+     * @return the committed values of a task, or null when it does not exist; callers hold a lock
+     */
+    private Row committed(long id) {
+        int slot = slotsById.get(id);
+        return slot < 0 ? null : row(slot);
+    }
+
+    private Optional<Task> findCommitted(long id, boolean withDescription) {
+        lock.readLock().lock();
+        try {
+            Row row = committed(id);
+            return row == null ? Optional.empty() : Optional.of(task(id, row, withDescription));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Task task(long id, Row row, boolean withDescription) {
+        return new Task(id, string(row.title()), withDescription ? string(row.description()) : null,
+                row.done(), fromMicros(row.createdAt()),
+                row.updatedAt() == NO_TIMESTAMP ? null : fromMicros(row.updatedAt()));
+    }
+
+    // Log; appends hold the write lock, forces only the force lock
+
+    private static ByteBuffer encode(Change change) {
+        return switch (change) {
+            case Put put -> {
+                Row row = put.row();
+                ByteBuffer record = record(PUT, 8 + 8 + 8 + 1 + 4 + length(row.title()) + 4 + length(row.description()));
+                record.putLong(put.id()).putLong(row.createdAt()).putLong(row.updatedAt())
+                        .put((byte) (row.done() ? 1 : 0));
+                putBytes(record, row.title());
+                putBytes(record, row.description());
+                yield record;
+            }
+            case Complete complete -> record(COMPLETE, 16).putLong(complete.id()).putLong(complete.updatedAt());
+            case Delete delete -> record(DELETE, 8).putLong(delete.id());
+            case Clear clear -> record(CLEAR, 0);
+        };
+    }
+
+    private static ByteBuffer record(byte type, int payloadBytes) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + 1 + payloadBytes);
+        record.position(HEADER_BYTES);
+        return record.put(type);
+    }
+
+    private void appendToLog(List<ByteBuffer> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("Task store is closed");
+        }
+        CRC32C crc = new CRC32C();
+        for (ByteBuffer record : records) {
+            int bodyBytes = record.position() - HEADER_BYTES;
+            crc.reset();
+            crc.update(record.array(), HEADER_BYTES, bodyBytes);
+            record.putInt(0, bodyBytes).putInt(4, (int) crc.getValue()).flip();
+        }
+        long bytes = 0;
+        try {
+            ByteBuffer[] buffers = records.toArray(ByteBuffer[]::new);
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                bytes += logChannel.write(buffers);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to the task store log", ex);
+        }
+        appendedBytes += bytes;
+        changesSinceSnapshot += records.size();
+    }
+
+    /**
+     * Force the log to disk unless a concurrent force already covered the
+     * given bytes. Holds only the force lock, so reads and writes go on.
+     * @param upTo appended bytes that must be on disk
+     */
+    private void force(long upTo) {
+        forceLock.lock();
+        try {
+            if (forcedBytes >= upTo || closed) {
+                return;
+            }
+            // Rotation takes the force lock, so the channel holds every byte counted here
+            long appended = appendedBytes;
+            logChannel.force(false);
+            forcedBytes = appended;
+            fsyncs.increment();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not force the task store log", ex);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Close the current log, if any, and start the given generation
+     * @return the generation
+     */
+    private long openLog(long generation) throws IOException {
+        forceLock.lock();
+        try {
+            if (logChannel != null) {
+                if (fsyncPolicy != FsyncPolicy.OS && forcedBytes < appendedBytes) {
+                    logChannel.force(false);
+                    forcedBytes = appendedBytes;
+                    fsyncs.increment();
+                }
+                logChannel.close();
+            }
+            logChannel = FileChannel.open(logPath(generation), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            logGeneration = generation;
+            return generation;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private Path logPath(long generation) {
+        return directory.resolve(String.format("%s%020d%s", LOG_PREFIX, generation, LOG_SUFFIX));
+    }
+
+    // Snapshot and recovery
+
+    private void writeSnapshot(Columns columns, long generation) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), crc);
+            DataOutputStream out = new DataOutputStream(checked);
+            int count = 0;
+            for (int slot = 0; slot < columns.slotCount(); slot++) {
+                if (columns.ids()[slot] != 0) {
+                    count++;
+                }
+            }
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(generation);
+            out.writeLong(columns.nextId());
+            out.writeInt(count);
+            for (int slot = 0; slot < columns.slotCount(); slot++) {
+                if (columns.ids()[slot] == 0) {
+                    continue;
+                }
+                out.writeLong(columns.ids()[slot]);
+                out.writeLong(columns.createdAt()[slot]);
+                out.writeLong(columns.updatedAt()[slot]);
+                out.writeBoolean(columns.completed().get(slot));
+                writeBytes(out, columns.titles()[slot]);
+                writeBytes(out, columns.descriptions()[slot]);
+            }
+            out.flush();
+            // The checksum itself is not part of the checked stream
+            new DataOutputStream(Channels.newOutputStream(channel)).writeInt((int) crc.getValue());
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.debug("Wrote task store snapshot of generation {}", generation);
+    }
+
+    private void recover() throws IOException {
+        long generation = 0;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            generation = readSnapshot(snapshot);
+        }
+        long lastGeneration = generation;
+        int replayed = 0;
+        for (Path path : logPaths()) {
+            long logGen = generationOf(path);
+            lastGeneration = Math.max(lastGeneration, logGen);
+            if (logGen >= generation) {
+                replayed += replay(path);
+            }
+        }
+        // New changes go to a new log, so a damaged tail of the last one is never appended to
+        openLog(lastGeneration + 1);
+        changesSinceSnapshot = replayed;
+        log.info("Opened embedded task store in {} with {} tasks ({} changes replayed from the log)",
+                directory.toAbsolutePath(), all.size(), replayed);
+    }
+
+    private long readSnapshot(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 64 * 1024), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a task store snapshot: " + path);
+            }
+            long generation = in.readLong();
+            long snapshotNextId = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long created = in.readLong();
+                long updated = in.readLong();
+                boolean done = in.readBoolean();
+                applyPut(id, readBytes(in), readBytes(in), done, created, updated);
+            }
+            int expected = (int) crc.getValue();
+            // Read the stored checksum past the checked stream
+            if (in.readInt() != expected) {
+                throw new IOException("Task store snapshot is damaged: " + path);
+            }
+            nextId.accumulateAndGet(snapshotNextId, Math::max);
+            return generation;
+        }
+    }
+
+    /**
+     * Apply the records of a log up to the first damaged one
+     * @return number of applied records
+     */
+    private int replay(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32C crc = new CRC32C();
+        int applied = 0;
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int bodyBytes = buffer.getInt(start);
+            if (bodyBytes < 1 || bodyBytes > buffer.remaining() - HEADER_BYTES) {
+                log.warn("Task store log {} ends in a damaged record at offset {}", path, start);
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), start + HEADER_BYTES, bodyBytes);
+            if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+                log.warn("Task store log {} ends in a record with a bad checksum at offset {}", path, start);
+                break;
+            }
+            ByteBuffer body = buffer.slice(start + HEADER_BYTES, bodyBytes);
+            switch (body.get()) {
+                case PUT -> {
+                    long id = body.getLong();
+                    long created = body.getLong();
+                    long updated = body.getLong();
+                    boolean done = body.get() != 0;
+                    applyPut(id, getBytes(body), getBytes(body), done, created, updated);
+                }
+                case COMPLETE -> {
+                    int slot = slotsById.get(body.getLong());
+                    long when = body.getLong();
+                    if (slot >= 0) {
+                        applyComplete(slot, when);
+                    }
+                }
+                case DELETE -> applyDelete(body.getLong());
+                case CLEAR -> applyClear();
+                default -> throw new IOException("Unknown record type in task store log " + path);
+            }
+            applied++;
+            buffer.position(start + HEADER_BYTES + bodyBytes);
+        }
+        return applied;
+    }
+
+    private void deleteLogsBefore(long generation) throws IOException {
+        for (Path path : logPaths()) {
+            if (generationOf(path) < generation) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private List<Path> logPaths() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long generationOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length()));
+    }
+
+    // Encoding
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return in.readNBytes(length);
+    }
+}
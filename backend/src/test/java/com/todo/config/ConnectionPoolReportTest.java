@@ -0,0 +1,56 @@
+package com.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConnectionPoolReport and the pool sizing of ConnectionPoolConfig
+ */
+@DisplayName("Connection Pool Report Tests")
+class ConnectionPoolReportTest {
+    
+    @Test
+    @DisplayName("Should report driver settings with URL parameters taking precedence")
+    void shouldReportEffectiveDriverSettings() {
+        // Given
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:mysql://localhost:3306/tododb?useCursorFetch=true&rewriteBatchedStatements=false");
+        pool.addDataSourceProperty("cachePrepStmts", "true");
+        pool.addDataSourceProperty("rewriteBatchedStatements", "true");
+        pool.addDataSourceProperty("password", "secret");
+        pool.setMaximumPoolSize(9);
+        
+        // When
+        Map<String, Object> settings = ConnectionPoolReport.describe(pool);
+        
+        // Then
+        assertThat(settings).containsEntry("maximumPoolSize", 9);
+        assertThat(settings.get("driver")).isEqualTo(Map.of(
+                "cachePrepStmts", "true",
+                "rewriteBatchedStatements", "false",
+                "useCursorFetch", "true"));
+    }
+    
+    @Test
+    @DisplayName("Should size unconfigured pools from cores and keep explicit sizes")
+    void shouldSizePoolsFromCores() {
+        // Given
+        ConnectionPoolConfig.HikariPoolSizer sizer = new ConnectionPoolConfig.HikariPoolSizer(true, 4, 1);
+        HikariDataSource unsized = new HikariDataSource();
+        HikariDataSource sized = new HikariDataSource();
+        sized.setMaximumPoolSize(3);
+        
+        // When
+        sizer.postProcessAfterInitialization(unsized, "dataSource");
+        sizer.postProcessAfterInitialization(sized, "otherDataSource");
+        
+        // Then
+        assertThat(unsized.getMaximumPoolSize()).isEqualTo(9);
+        assertThat(sized.getMaximumPoolSize()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,110 @@
+package com.todo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.service.TaskVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for DatabaseConcurrencyLimitFilter
+ */
+@DisplayName("Database Concurrency Limit Filter Tests")
+class DatabaseConcurrencyLimitFilterTest {
+    
+    private final TaskVersion taskVersion = new TaskVersion();
+    
+    @Test
+    @DisplayName("Should reject requests with 503 while all permits are held")
+    void shouldRejectWhenPermitsExhausted() throws Exception {
+        // Given
+        DatabaseConcurrencyLimitFilter filter = new DatabaseConcurrencyLimitFilter(1, 10, new ObjectMapper(), taskVersion);
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/page"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            inFlight.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        inFlight.await();
+        
+        // When
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/page"), rejected, new MockFilterChain());
+        release.countDown();
+        holder.join();
+        
+        // Then
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(filter.getRejectedCount()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should not limit requests served from memory")
+    void shouldNotLimitRequestsServedFromMemory() throws Exception {
+        // Given
+        DatabaseConcurrencyLimitFilter filter = new DatabaseConcurrencyLimitFilter(0, 10, new ObjectMapper(), taskVersion);
+        MockHttpServletRequest notModified = new MockHttpServletRequest("GET", "/api/tasks/page");
+        notModified.addHeader("If-None-Match", "W/\"" + taskVersion.getETag() + "\"");
+        List<MockHttpServletRequest> requests = List.of(
+                new MockHttpServletRequest("GET", "/api/health"),
+                new MockHttpServletRequest("GET", "/api/tasks"),
+                new MockHttpServletRequest("GET", "/api/tasks/stats"),
+                new MockHttpServletRequest("GET", "/api/tasks/stream"),
+                new MockHttpServletRequest("GET", "/api/tasks/ingest/abc"),
+                notModified);
+        AtomicInteger calls = new AtomicInteger();
+        
+        // When
+        for (MockHttpServletRequest request : requests) {
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> calls.incrementAndGet());
+        }
+        MockHttpServletResponse databaseBound = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/page"), databaseBound, new MockFilterChain());
+        
+        // Then
+        assertThat(calls).hasValue(requests.size());
+        assertThat(databaseBound.getStatus()).isEqualTo(503);
+    }
+    
+    @Test
+    @DisplayName("Should hold the permit of an asynchronous export until it completes")
+    void shouldHoldPermitUntilAsyncExportCompletes() throws Exception {
+        // Given
+        DatabaseConcurrencyLimitFilter filter = new DatabaseConcurrencyLimitFilter(1, 10, new ObjectMapper(), taskVersion);
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/tasks/export");
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        
+        // When
+        MockHttpServletResponse whileExporting = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/1"), whileExporting, new MockFilterChain());
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        MockHttpServletResponse afterExport = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/1"), afterExport, new MockFilterChain());
+        
+        // Then
+        assertThat(whileExporting.getStatus()).isEqualTo(503);
+        assertThat(afterExport.getStatus()).isEqualTo(200);
+    }
+}
@@ -1,9 +1,15 @@
 package com.todo.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.todo.dto.TaskCreateDto;
 import com.todo.dto.TaskResponseDto;
 import com.todo.exception.ResourceNotFoundException;
+import com.todo.exception.TooManyRequestsException;
+import com.todo.service.TaskEventBroadcaster;
+import com.todo.service.TaskExportService;
+import com.todo.service.TaskIngestQueue;
 import com.todo.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,16 +17,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +54,15 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
     
+    @MockBean
+    private TaskExportService taskExportService;
+    
+    @MockBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+    
+    @MockBean
+    private TaskIngestQueue taskIngestQueue;
+    
     private TaskResponseDto testTaskResponse;
     
     @BeforeEach
@@ -69,6 +91,66 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.data[0].title").value("Test Task"));
     }
     
+    @Test
+    @DisplayName("GET /api/tasks - Should negotiate Smile with epoch-millis timestamps")
+    void shouldGetRecentTasksAsSmile() throws Exception {
+        // Given
+        when(taskService.getRecentTasks()).thenReturn(List.of(testTaskResponse));
+        long createdAt = testTaskResponse.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        
+        // When
+        byte[] body = mockMvc.perform(get("/api/tasks").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        
+        // Then
+        JsonNode task = new ObjectMapper(new SmileFactory()).readTree(body).get("data").get(0);
+        assertThat(task.get("title").asText()).isEqualTo("Test Task");
+        assertThat(task.get("createdAt").isIntegralNumber()).isTrue();
+        assertThat(task.get("createdAt").asLong()).isEqualTo(createdAt);
+    }
+    
+    @Test
+    @DisplayName("GET /api/tasks - Should return 304 without loading tasks when the ETag matches")
+    void shouldReturnNotModifiedForMatchingETag() throws Exception {
+        // Given
+        when(taskService.getTasksETag()).thenReturn("tasks-1-7");
+        
+        // When & Then
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", "\"tasks-1-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"tasks-1-7\""))
+                .andExpect(content().string(""));
+        verify(taskService, never()).getRecentTasks();
+    }
+    
+    @Test
+    @DisplayName("GET /api/tasks?view=summary - Should return recent tasks without descriptions")
+    void shouldGetRecentTaskSummaries() throws Exception {
+        // Given
+        testTaskResponse.setDescription(null);
+        when(taskService.getRecentTaskSummaries()).thenReturn(Arrays.asList(testTaskResponse));
+        
+        // When & Then
+        mockMvc.perform(get("/api/tasks").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].title").value("Test Task"))
+                .andExpect(jsonPath("$.data[0].description").doesNotExist());
+    }
+    
+    @Test
+    @DisplayName("GET /api/tasks?view=unknown - Should return 400")
+    void shouldReturn400ForUnknownView() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("view", "unknown"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+    
     @Test
     @DisplayName("POST /api/tasks - Should create task")
     void shouldCreateTask() throws Exception {
@@ -85,6 +167,43 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.data.title").value("Test Task"));
     }
     
+    @Test
+    @DisplayName("POST /api/tasks - Should queue the task and return 202 when ingestion is enabled")
+    void shouldQueueTaskWhenIngestionEnabled() throws Exception {
+        // Given
+        TaskIngestQueue.Ticket ticket = mock(TaskIngestQueue.Ticket.class);
+        when(ticket.getId()).thenReturn("ticket-1");
+        when(taskIngestQueue.isEnabled()).thenReturn(true);
+        when(taskIngestQueue.submit(any(TaskCreateDto.class))).thenReturn(ticket);
+        
+        // When & Then
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto("New Task", null))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/tasks/ingest/ticket-1"))
+                .andExpect(jsonPath("$.data.trackingId").value("ticket-1"))
+                .andExpect(jsonPath("$.data.status").value("PENDING"));
+        verify(taskService, never()).createTask(any(TaskCreateDto.class));
+    }
+    
+    @Test
+    @DisplayName("POST /api/tasks - Should return 429 when the ingestion queue is full")
+    void shouldReturn429WhenIngestionQueueFull() throws Exception {
+        // Given
+        when(taskIngestQueue.isEnabled()).thenReturn(true);
+        when(taskIngestQueue.submit(any(TaskCreateDto.class)))
+                .thenThrow(new TooManyRequestsException("Task ingestion queue is full"));
+        
+        // When & Then
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto("New Task", null))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+    
     @Test
     @DisplayName("POST /api/tasks - Should return 400 for invalid input")
     void shouldReturn400ForInvalidInput() throws Exception {
@@ -0,0 +1,144 @@
+package com.todo.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource
+ */
+@DisplayName("Replica Routing DataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource first;
+    private DataSource second;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = dataSource("primary");
+        first = dataSource("replica-1");
+        second = dataSource("replica-2");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Should send writes to the primary and spread reads round-robin")
+    void shouldSpreadReadsRoundRobin() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        // When & Then
+        assertThat(List.of(target(routing), target(routing), target(routing)))
+                .containsExactly("replica-1", "replica-2", "replica-1");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertThat(target(routing)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should pick the replica with the fewest open connections")
+    void shouldPickLeastConnections() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS);
+        Connection held = routing.getConnection();
+
+        // When
+        String next = target(routing);
+        held.close();
+
+        // Then
+        assertThat(held.getCatalog()).isEqualTo("replica-1");
+        assertThat(next).isEqualTo("replica-2");
+        assertThat(target(routing)).isEqualTo("replica-1");
+    }
+
+    @Test
+    @DisplayName("Should fail over to the next replica and then to the primary")
+    void shouldFailOver() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // When & Then
+        assertThat(target(routing)).isEqualTo("replica-2");
+        assertThat(routing.getAvailableReplicaCount()).isEqualTo(1);
+        when(second.getConnection()).thenThrow(new SQLException("Connection refused"));
+        assertThat(target(routing)).isEqualTo("primary");
+        assertThat(routing.getFallbackCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return a recovered replica to the rotation after a health check")
+    void shouldRecoverAfterHealthCheck() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        Connection healthy = first.getConnection();
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(healthy);
+        target(routing);
+        assertThat(routing.getAvailableReplicaCount()).isEqualTo(1);
+
+        // When
+        routing.checkHealth();
+
+        // Then
+        assertThat(routing.getAvailableReplicaCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep a request on one replica and honour primary pins")
+    void shouldHonourRoutingScope() throws SQLException {
+        // Given
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        // When & Then
+        try (ReadRouting.Scope ignored = ReadRouting.openScope(false)) {
+            assertThat(List.of(target(routing), target(routing))).containsExactly("replica-1", "replica-1");
+            assertThat(ReadRouting.onPrimary(() -> {
+                try {
+                    return target(routing);
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            })).isEqualTo("primary");
+        }
+        try (ReadRouting.Scope ignored = ReadRouting.openScope(true)) {
+            assertThat(target(routing)).isEqualTo("primary");
+        }
+    }
+
+    private ReplicaRoutingDataSource routing(ReplicaRoutingDataSource.Selection selection) {
+        return new ReplicaRoutingDataSource(primary, List.of(
+                new ReplicaRoutingDataSource.NamedDataSource("replica-1", first),
+                new ReplicaRoutingDataSource.NamedDataSource("replica-2", second)), selection);
+    }
+
+    private static String target(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog();
+        }
+    }
+
+    private static DataSource dataSource(String name) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getCatalog()).thenReturn(name);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,25 @@
+package com.todo.integration;
+
+import com.todo.storage.EmbeddedTaskStore;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Task API integration tests against the embedded storage engine
+ */
+@TestPropertySource(properties = {
+        "todo.storage.engine=embedded",
+        "todo.storage.embedded.dir=${java.io.tmpdir}/todo-embedded-${random.uuid}"
+})
+@DisplayName("Task API Integration Tests (embedded storage)")
+class EmbeddedStorageIntegrationTest extends TaskApiIntegrationTest {
+
+    @Autowired
+    private EmbeddedTaskStore embeddedTaskStore;
+
+    @Override
+    protected void deleteAllTasks() {
+        embeddedTaskStore.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package com.todo.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.datasource.ReplicaRoutingDataSource;
+import com.todo.dto.TaskCreateDto;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for read replica routing. The primary and the replica
+ * are separate in-memory databases without replication, so a row shows
+ * which database answered.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:primarydb;DB_CLOSE_DELAY=-1",
+        "todo.datasource.replicas.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL
+})
+@DisplayName("Replica Routing Integration Tests")
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1";
+    private static final long REPLICA_ONLY_ID = 9_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void createReplica() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS task (id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL, "
+                    + "description TEXT, completed BOOLEAN NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)");
+            statement.execute("MERGE INTO task VALUES (" + REPLICA_ONLY_ID
+                    + ", 'Replica task', 'Only on the replica', FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer reads from the replica")
+    void shouldReadFromReplica() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tasks/{id}", REPLICA_ONLY_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("Replica task"));
+        assertThat(replicaRoutingDataSource.getAvailableReplicaCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should read a client's own writes from the primary")
+    void shouldReadOwnWritesFromPrimary() throws Exception {
+        // Given
+        TaskCreateDto createDto = new TaskCreateDto("Primary task", "Written to the primary");
+        MvcResult created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists("todo-primary-until"))
+                .andReturn();
+        Cookie pin = created.getResponse().getCookie("todo-primary-until");
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).path("data").path("id").asLong();
+
+        // Reads must reach a database, not the entity cache filled by the insert
+        entityManagerFactory.getCache().evictAll();
+
+        // When & Then
+        mockMvc.perform(get("/api/tasks/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/tasks/{id}", id).cookie(pin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("Primary task"));
+    }
+}
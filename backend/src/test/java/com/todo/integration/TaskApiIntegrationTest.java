@@ -2,20 +2,39 @@ package com.todo.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todo.dto.TaskCreateDto;
+import com.todo.model.OutboxEvent;
 import com.todo.model.Task;
+import com.todo.outbox.OutboxRelay;
+import com.todo.repository.OutboxEventRepository;
 import com.todo.repository.TaskRepository;
+import com.todo.repository.TaskStore;
+import com.todo.service.RecentTasksIndex;
+import com.todo.service.TaskCounters;
+import com.todo.service.TaskSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,8 +56,47 @@ class TaskApiIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
     
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private RecentTasksIndex recentTasksIndex;
+    
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+    
+    @Autowired
+    private TaskCounters taskCounters;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private OutboxRelay outboxRelay;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Value("${todo.storage.engine:jpa}")
+    private String storageEngine;
+    
     @BeforeEach
     void setUp() {
+        deleteAllTasks();
+        outboxEventRepository.deleteAll();
+        // Tests seed data through the repository, bypassing the service write paths
+        recentTasksIndex.invalidate();
+        taskSearchIndex.rebuild();
+        taskCounters.reconcile();
+    }
+    
+    /**
+     * Remove all tasks from the task store in use
+     */
+    protected void deleteAllTasks() {
         taskRepository.deleteAll();
     }
     
@@ -73,7 +131,7 @@ class TaskApiIntegrationTest {
                 .andExpect(jsonPath("$.data.completed").value(true));
         
         // Verify in database
-        Task task = taskRepository.findById(taskId).orElseThrow();
+        Task task = taskStore.findById(taskId).orElseThrow();
         assertThat(task.getCompleted()).isTrue();
     }
     
@@ -86,7 +144,7 @@ class TaskApiIntegrationTest {
             task.setTitle("Task " + i);
             task.setDescription("Description " + i);
             task.setCompleted(false);
-            taskRepository.save(task);
+            taskStore.save(task);
         }
         
         // Get recent tasks
@@ -103,7 +161,7 @@ class TaskApiIntegrationTest {
             Task task = new Task();
             task.setTitle("Incomplete Task " + i);
             task.setCompleted(false);
-            taskRepository.save(task);
+            taskStore.save(task);
         }
         
         // Create 2 completed tasks
@@ -111,7 +169,7 @@ class TaskApiIntegrationTest {
             Task task = new Task();
             task.setTitle("Completed Task " + i);
             task.setCompleted(true);
-            taskRepository.save(task);
+            taskStore.save(task);
         }
         
         // Get recent tasks
@@ -120,6 +178,390 @@ class TaskApiIntegrationTest {
                 .andExpect(jsonPath("$.data", hasSize(3)));
     }
     
+    @Test
+    @DisplayName("Should reflect created and completed tasks in cached recent list")
+    void shouldKeepRecentListInSyncWithWrites() throws Exception {
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+        
+        String response = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto("Cached Task", null))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long taskId = objectMapper.readTree(response).get("data").get("id").asLong();
+        
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].id").value(taskId));
+        
+        mockMvc.perform(put("/api/tasks/" + taskId + "/complete"))
+                .andExpect(status().isOk());
+        
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+    }
+    
+    @Test
+    @DisplayName("Should walk all tasks with keyset pagination")
+    void shouldWalkAllTasksWithKeysetPagination() throws Exception {
+        for (int i = 1; i <= 7; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDescription("Description " + i);
+            task.setCompleted(i % 3 == 0);
+            taskStore.save(task);
+        }
+        
+        String first = mockMvc.perform(get("/api/tasks/page").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items", hasSize(3)))
+                .andExpect(jsonPath("$.data.items[0].description").value("Description 7"))
+                .andExpect(jsonPath("$.data.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(first).get("data").get("nextCursor").asText();
+        
+        String second = mockMvc.perform(get("/api/tasks/page")
+                        .param("after", cursor).param("limit", "3").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items", hasSize(3)))
+                .andExpect(jsonPath("$.data.items[0].title").value("Task 4"))
+                .andExpect(jsonPath("$.data.items[0].description").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        cursor = objectMapper.readTree(second).get("data").get("nextCursor").asText();
+        
+        mockMvc.perform(get("/api/tasks/page").param("after", cursor).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items", hasSize(1)))
+                .andExpect(jsonPath("$.data.hasMore").value(false))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+    
+    @Test
+    @DisplayName("Should return 400 for malformed page cursor")
+    void shouldReturn400ForMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/tasks/page").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+    
+    @Test
+    @DisplayName("Should stream filtered tasks as NDJSON")
+    void shouldExportTasksAsNdjson() throws Exception {
+        for (int i = 1; i <= 4; i++) {
+            Task task = new Task();
+            task.setTitle("Export Task " + i);
+            task.setCompleted(i % 2 == 0);
+            taskStore.save(task);
+        }
+        
+        MvcResult result = mockMvc.perform(get("/api/tasks/export").param("completed", "false"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("completed").asBoolean()).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should bulk create tasks with per-item results")
+    void shouldBulkCreateTasks() throws Exception {
+        List<TaskCreateDto> createDtos = new ArrayList<>();
+        for (int i = 1; i <= 1200; i++) {
+            createDtos.add(new TaskCreateDto("Bulk Task " + i, "Description " + i));
+        }
+        createDtos.add(new TaskCreateDto("", "Invalid"));
+        
+        mockMvc.perform(post("/api/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDtos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data", hasSize(1201)))
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[1200].success").value(false))
+                .andExpect(jsonPath("$.data[1200].errors.title").exists());
+        
+        assertThat(taskStore.countTasks().getTotal()).isEqualTo(1200);
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(5)))
+                .andExpect(jsonPath("$.data[0].title").value("Bulk Task 1200"));
+    }
+    
+    @Test
+    @DisplayName("Should bulk complete and bulk delete tasks, reporting missing IDs")
+    void shouldBulkCompleteAndDeleteTasks() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Task task = new Task();
+            task.setTitle("Bulk Task " + i);
+            task.setCompleted(false);
+            ids.add(taskStore.save(task).getId());
+        }
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(999_999L);
+        
+        mockMvc.perform(put("/api/tasks/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requested)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.requested").value(4))
+                .andExpect(jsonPath("$.data.affected").value(3))
+                .andExpect(jsonPath("$.data.missingIds[0]").value(999_999));
+        assertThat(taskStore.countTasks().getIncomplete()).isZero();
+        
+        mockMvc.perform(delete("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requested.subList(1, 4))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.affected").value(2))
+                .andExpect(jsonPath("$.data.missingIds", hasSize(1)));
+        assertThat(taskStore.findAll()).extracting(Task::getId).containsExactly(ids.get(0));
+    }
+    
+    @Test
+    @DisplayName("Should keep task statistics in step with writes")
+    void shouldKeepTaskStatsInStepWithWrites() throws Exception {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (String title : List.of("First", "Second", "Third")) {
+            String body = mockMvc.perform(post("/api/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TaskCreateDto(title, null))))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(body).path("data").path("id").asLong());
+        }
+        
+        // When
+        mockMvc.perform(put("/api/tasks/{id}/complete", ids.get(0))).andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/{id}/complete", ids.get(1))).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(ids.get(0), ids.get(2)))))
+                .andExpect(status().isOk());
+        
+        // Then
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(1))
+                .andExpect(jsonPath("$.data.incomplete").value(0))
+                .andExpect(jsonPath("$.data.completed").value(1));
+        long corrections = taskCounters.getCorrectionCount();
+        taskCounters.reconcile();
+        assertThat(taskCounters.getCorrectionCount()).isEqualTo(corrections);
+    }
+    
+    @Test
+    @DisplayName("Should answer 304 until the task list or task changes")
+    void shouldRevalidateWithETags() throws Exception {
+        // Given
+        Task task = new Task();
+        task.setTitle("Cached Task");
+        task.setCompleted(false);
+        Long taskId = taskStore.save(task).getId();
+        
+        String listETag = mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String taskETag = mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // When unchanged
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", listETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/tasks/" + taskId).header("If-None-Match", taskETag))
+                .andExpect(status().isNotModified());
+        
+        // When changed
+        mockMvc.perform(put("/api/tasks/" + taskId + "/complete"))
+                .andExpect(status().isOk());
+        
+        // Then
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", listETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(listETag)));
+        mockMvc.perform(get("/api/tasks/" + taskId).header("If-None-Match", taskETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.completed").value(true));
+    }
+    
+    @Test
+    @DisplayName("Should push committed changes to change feed subscribers")
+    void shouldStreamTaskChanges() throws Exception {
+        // Given
+        MvcResult stream = mockMvc.perform(get("/api/tasks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // When
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto("Streamed Task", null))))
+                .andExpect(status().isCreated());
+        
+        // Then
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!stream.getResponse().getContentAsString().contains("Streamed Task")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(stream.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(stream.getResponse().getContentAsString())
+                .contains("event:task-created")
+                .contains("Streamed Task");
+    }
+    
+    @Test
+    @DisplayName("Should record every task change in the outbox and relay it")
+    void shouldRelayOutboxEvents() throws Exception {
+        // Given
+        String response = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto("Outbox Task", null))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long taskId = objectMapper.readTree(response).get("data").get("id").asLong();
+        mockMvc.perform(put("/api/tasks/" + taskId + "/complete")).andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/" + taskId + "/complete")).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/" + taskId)).andExpect(status().isOk());
+        
+        // When: a scheduled relay may hold the relay lock, in which case this call skips
+        long deadline = System.currentTimeMillis() + 5_000;
+        do {
+            outboxRelay.relay();
+        } while (outboxEventRepository.countByPublishedAtIsNull() > 0 && System.currentTimeMillis() < deadline);
+        
+        // Then
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertThat(events)
+                .extracting(OutboxEvent::getEventType)
+                .containsExactly("task-created", "task-completed", "task-deleted");
+        assertThat(events).allMatch(event -> event.getPublishedAt() != null);
+        assertThat(events.get(0).getPayload()).contains("\"title\":\"Outbox Task\"");
+    }
+    
+    @Test
+    @DisplayName("Should serve repeated task reads from the second-level cache and invalidate it on writes")
+    void shouldCacheTasksAndInvalidateOnWrites() throws Exception {
+        assumeTrue("jpa".equals(storageEngine), "The second-level cache only fronts the JPA engine");
+        
+        // Given
+        Task task = new Task();
+        task.setTitle("Cached Task");
+        task.setDescription("Deep link target");
+        task.setCompleted(false);
+        Long taskId = taskRepository.save(task).getId();
+        // Start cold; a load right after the insert may not be cached yet
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        // When
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/tasks/" + taskId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.description").value("Deep link target"));
+        }
+        
+        // Then: the row is loaded once, with its description; later requests hit the cache
+        EntityStatistics taskStatistics = statistics.getEntityStatistics(Task.class.getName());
+        assertThat(taskStatistics.getLoadCount()).isEqualTo(1);
+        assertThat(taskStatistics.getCacheHitCount()).isEqualTo(2);
+        
+        // When: a JPQL bulk update changes the row
+        mockMvc.perform(put("/api/tasks/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(taskId))))
+                .andExpect(status().isOk());
+        
+        // Then
+        mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(jsonPath("$.data.completed").value(true));
+        
+        // When: the count is cached, then rows are inserted through JDBC
+        assertThat(taskRepository.countByCompletedFalse()).isZero();
+        assertThat(taskRepository.countByCompletedFalse()).isZero();
+        mockMvc.perform(post("/api/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new TaskCreateDto("Bulk", null)))))
+                .andExpect(status().isCreated());
+        
+        // Then
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(taskRepository.countByCompletedFalse()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should time the endpoint, service method and repository query of a request")
+    void shouldRecordHotPathTimers() throws Exception {
+        // When
+        mockMvc.perform(get("/api/tasks/page"))
+                .andExpect(status().isOk());
+        
+        // Then
+        assertThat(meterRegistry.find("http.server.requests").tag("uri", "/api/tasks/page").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isPositive());
+        assertThat(meterRegistry.find("todo.task.service").tag("method", "getTasksPage").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isPositive());
+        String repositoryTimer = "jpa".equals(storageEngine) ? "spring.data.repository.invocations" : "todo.task.repository";
+        assertThat(meterRegistry.find(repositoryTimer).tag("method", "findFirstPage").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isPositive());
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+    }
+    
+    @Test
+    @DisplayName("Should search tasks and keep the index in sync with writes")
+    void shouldSearchTasks() throws Exception {
+        // Given
+        Task seeded = new Task();
+        seeded.setTitle("Renew passport");
+        seeded.setDescription("Book an appointment");
+        seeded.setCompleted(false);
+        seeded = taskStore.save(seeded);
+        taskSearchIndex.rebuild();
+        TaskCreateDto created = new TaskCreateDto();
+        created.setTitle("Passport photos");
+        created.setDescription("Needed to renew the passport");
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(created)))
+                .andExpect(status().isCreated());
+        
+        // When & Then
+        mockMvc.perform(get("/api/tasks/search").param("q", "passp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(2))
+                .andExpect(jsonPath("$.data.items[0].title").value("Passport photos"))
+                .andExpect(jsonPath("$.data.items[0].description").doesNotExist());
+        mockMvc.perform(get("/api/tasks/search").param("q", "renew passport").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+        
+        mockMvc.perform(delete("/api/tasks/" + seeded.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/search").param("q", "appointment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(0));
+        mockMvc.perform(get("/api/tasks/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     @DisplayName("Should delete task")
     void shouldDeleteTask() throws Exception {
@@ -127,7 +569,7 @@ class TaskApiIntegrationTest {
         Task task = new Task();
         task.setTitle("Task to Delete");
         task.setCompleted(false);
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = taskStore.save(task);
         
         // Delete the task
         mockMvc.perform(delete("/api/tasks/" + savedTask.getId()))
@@ -135,7 +577,7 @@ class TaskApiIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true));
         
         // Verify deletion
-        assertThat(taskRepository.findById(savedTask.getId())).isEmpty();
+        assertThat(taskStore.findById(savedTask.getId())).isEmpty();
     }
     
     @Test
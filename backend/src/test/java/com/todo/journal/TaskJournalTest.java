@@ -0,0 +1,153 @@
+package com.todo.journal;
+
+import com.todo.dto.TaskCreateDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TaskJournal
+ */
+@DisplayName("Task Journal Tests")
+class TaskJournalTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should return the tasks after the last acknowledgement on recovery")
+    void shouldRecoverUnacknowledgedTasks() {
+        // Given
+        TaskJournal journal = journal(TaskJournal.FsyncPolicy.PER_WRITE);
+        assertThat(journal.recover()).isEmpty();
+        long first = journal.append(new TaskCreateDto("First", null));
+        journal.sync(first);
+        journal.sync(journal.append(new TaskCreateDto("Second", "Zweite Aufgabe — ünïcödé")));
+        journal.acknowledge(first);
+        long third = journal.append(new TaskCreateDto("Third", ""));
+        journal.sync(third);
+
+        // When
+        List<TaskJournal.Entry> entries = journal(TaskJournal.FsyncPolicy.PER_WRITE).recover();
+
+        // Then
+        assertThat(entries).extracting(TaskJournal.Entry::task).containsExactly(
+                new TaskCreateDto("Second", "Zweite Aufgabe — ünïcödé"),
+                new TaskCreateDto("Third", ""));
+        assertThat(entries.get(1).sequence()).isEqualTo(third);
+        assertThat(journal.getFsyncCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should cover records appended before a force with that one force")
+    void shouldShareForcesBetweenAppenders() {
+        // Given
+        TaskJournal journal = journal(TaskJournal.FsyncPolicy.PER_WRITE);
+        journal.recover();
+        long first = journal.append(new TaskCreateDto("First", null));
+        long second = journal.append(new TaskCreateDto("Second", null));
+
+        // When
+        journal.sync(first);
+        journal.sync(second);
+
+        // Then
+        assertThat(journal.getFsyncCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rotate full segments and delete them once acknowledged")
+    void shouldRotateAndTruncateSegments() throws IOException {
+        // Given
+        TaskJournal journal = journal(TaskJournal.FsyncPolicy.OS);
+        journal.recover();
+        String description = "x".repeat(1_000);
+        long last = 0;
+        for (int i = 0; i < 200; i++) {
+            last = journal.append(new TaskCreateDto("Task " + i, description));
+        }
+        assertThat(segmentFiles()).hasSizeGreaterThan(2);
+
+        // When
+        journal.acknowledge(last);
+
+        // Then
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(journal.getSegmentCount()).isEqualTo(1);
+        assertThat(journal(TaskJournal.FsyncPolicy.OS).recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop reading a segment at a record with a bad checksum")
+    void shouldStopAtDamagedRecord() throws IOException {
+        // Given
+        TaskJournal journal = journal(TaskJournal.FsyncPolicy.INTERVAL);
+        journal.recover();
+        journal.append(new TaskCreateDto("Intact", null));
+        journal.append(new TaskCreateDto("Torn", null));
+        journal.flush();
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Flip a byte in the title of the second record
+            int secondRecord = 8 + channel.map(FileChannel.MapMode.READ_ONLY, 0, 4).getInt(0);
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), secondRecord + 8 + 9 + 4);
+        }
+
+        // When
+        List<TaskJournal.Entry> entries = journal(TaskJournal.FsyncPolicy.INTERVAL).recover();
+
+        // Then
+        assertThat(entries).extracting(entry -> entry.task().getTitle()).containsExactly("Intact");
+    }
+
+    @Test
+    @DisplayName("Should reject appends before recovery and tasks larger than a segment")
+    void shouldRejectInvalidAppends() {
+        // Given
+        TaskJournal journal = journal(TaskJournal.FsyncPolicy.OS);
+
+        // When & Then
+        assertThatThrownBy(() -> journal.append(new TaskCreateDto("Early", null)))
+                .isInstanceOf(IllegalStateException.class);
+        journal.recover();
+        assertThatThrownBy(() -> journal.append(new TaskCreateDto("Huge", "x".repeat(SEGMENT_BYTES))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should require an absolute directory only when enabled")
+    void shouldRequireAbsoluteDirectoryWhenEnabled() {
+        // When & Then
+        assertThatThrownBy(() -> new TaskJournal(true, "journal", SEGMENT_BYTES, "interval"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("todo.ingest.journal.dir");
+        assertThatThrownBy(() -> new TaskJournal(true, "", SEGMENT_BYTES, "interval"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new TaskJournal(false, "", SEGMENT_BYTES, "interval").recover()).isEmpty();
+        assertThat(new TaskJournal(true, directory.toString(), SEGMENT_BYTES, "interval").isEnabled()).isTrue();
+    }
+
+    private TaskJournal journal(TaskJournal.FsyncPolicy fsyncPolicy) {
+        return new TaskJournal(true, directory, SEGMENT_BYTES, fsyncPolicy);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -85,6 +85,27 @@ class TaskRepositoryTest {
         assertThat(result).hasSize(5);
     }
     
+    @Test
+    @DisplayName("Should page tasks by creation date and ID after a keyset position")
+    void shouldFindPageAfterKeysetPosition() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            taskRepository.save(createTask("Task " + i, "Description", i % 2 == 0));
+        }
+        List<Task> firstPage = taskRepository.findFirstPage(PageRequest.of(0, 2));
+        Task last = firstPage.get(firstPage.size() - 1);
+        
+        // When
+        List<Task> secondPage = taskRepository.findPageAfter(
+                last.getCreatedAt(), last.getId(), PageRequest.of(0, 10));
+        
+        // Then
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(3);
+        assertThat(secondPage).extracting(Task::getId)
+                .doesNotContainAnyElementsOf(firstPage.stream().map(Task::getId).toList());
+    }
+    
     @Test
     @DisplayName("Should count incomplete tasks")
     void shouldCountIncompleteTasks() {
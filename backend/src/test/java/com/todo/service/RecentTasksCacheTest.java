@@ -0,0 +1,43 @@
+package com.todo.service;
+
+import com.todo.dto.TaskResponseDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RecentTasksCache
+ */
+@DisplayName("Recent Tasks Cache Tests")
+class RecentTasksCacheTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should not duplicate a created task that the cached list already contains")
+    void shouldNotDuplicateCreatedTask() {
+        // Given: a miss loaded the list after the new task committed
+        RecentTasksCache cache = new RecentTasksCache(3);
+        TaskResponseDto created = task(3L, 2);
+        cache.get(() -> List.of(created, task(2L, 1), task(1L, 0)));
+
+        // When
+        cache.onTaskCreated(created);
+
+        // Then
+        assertThat(cache.get(List::of)).extracting(TaskResponseDto::getId).containsExactly(3L, 2L, 1L);
+    }
+
+    private static TaskResponseDto task(Long id, int minutes) {
+        TaskResponseDto task = new TaskResponseDto();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setCompleted(false);
+        task.setCreatedAt(BASE_TIME.plusMinutes(minutes));
+        return task;
+    }
+}
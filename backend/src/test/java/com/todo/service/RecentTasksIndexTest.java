@@ -0,0 +1,111 @@
+package com.todo.service;
+
+import com.todo.dto.TaskResponseDto;
+import com.todo.model.Task;
+import com.todo.repository.TaskStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RecentTasksIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Recent Tasks Index Tests")
+class RecentTasksIndexTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private TaskStore taskStore;
+
+    private RecentTasksIndex recentTasksIndex;
+
+    @BeforeEach
+    void setUp() {
+        recentTasksIndex = new RecentTasksIndex(
+                taskStore, new RecentTasksCache(), new TaskVersion(), TaskService::convertToDto, 6);
+    }
+
+    @Test
+    @DisplayName("Should order tasks by creation date and then ID, newest first")
+    void shouldOrderByCreatedAtThenId() {
+        // Given
+        when(taskStore.findRecentIncompleteTasks(any(PageRequest.class)))
+                .thenReturn(List.of(createTask(2L, 0), createTask(1L, 0)));
+        recentTasksIndex.load();
+
+        // When
+        recentTasksIndex.onTaskCreated(TaskService.convertToDto(createTask(3L, 0)));
+        recentTasksIndex.onTaskCreated(TaskService.convertToDto(createTask(4L, -1)));
+
+        // Then
+        assertThat(recentTasksIndex.getRecentTasks(5))
+                .extracting(TaskResponseDto::getId)
+                .containsExactly(3L, 2L, 1L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should rebuild when removals leave fewer than the recent limit")
+    void shouldRebuildOnUnderflow() {
+        // Given
+        List<Task> window = new ArrayList<>();
+        for (long id = 6; id >= 1; id--) {
+            window.add(createTask(id, (int) id));
+        }
+        when(taskStore.findRecentIncompleteTasks(any(PageRequest.class)))
+                .thenReturn(window)
+                .thenReturn(List.of(createTask(4L, 4), createTask(3L, 3), createTask(2L, 2),
+                        createTask(1L, 1), createTask(0L, 0)));
+        recentTasksIndex.load();
+
+        // When
+        recentTasksIndex.onTaskRemoved(6L);
+        recentTasksIndex.onTaskRemoved(5L);
+
+        // Then
+        verify(taskStore, times(2)).findRecentIncompleteTasks(any(PageRequest.class));
+        assertThat(recentTasksIndex.getRecentTasks(5))
+                .extracting(TaskResponseDto::getId)
+                .containsExactly(4L, 3L, 2L, 1L, 0L);
+    }
+
+    @Test
+    @DisplayName("Should rebuild when the database no longer matches the index")
+    void shouldRebuildOnDrift() {
+        // Given
+        when(taskStore.findRecentIncompleteTasks(any(PageRequest.class)))
+                .thenReturn(List.of(createTask(1L, 0)))
+                .thenReturn(List.of(createTask(2L, 1), createTask(1L, 0)));
+        recentTasksIndex.load();
+
+        // When
+        recentTasksIndex.verify();
+
+        // Then
+        assertThat(recentTasksIndex.getRecentTasks(5))
+                .extracting(TaskResponseDto::getId)
+                .containsExactly(2L, 1L);
+    }
+
+    private Task createTask(Long id, int minutesOffset) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setCompleted(false);
+        task.setCreatedAt(BASE_TIME.plusMinutes(minutesOffset));
+        return task;
+    }
+}
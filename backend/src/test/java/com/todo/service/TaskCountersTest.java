@@ -0,0 +1,96 @@
+package com.todo.service;
+
+import com.todo.dto.TaskStatsDto;
+import com.todo.repository.TaskCounts;
+import com.todo.repository.TaskStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskCounters
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Task Counters Tests")
+class TaskCountersTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    private TaskCounters taskCounters;
+
+    @BeforeEach
+    void setUp() {
+        taskCounters = new TaskCounters(taskStore);
+    }
+
+    @Test
+    @DisplayName("Should seed once and then answer from the counters")
+    void shouldSeedOnceAndCountWrites() {
+        // Given
+        when(taskStore.countTasks()).thenReturn(counts(10, 4));
+
+        // When
+        taskCounters.load();
+        taskCounters.onCreated(3);
+        taskCounters.onCompleted(2);
+        taskCounters.onDeleted(1, 1);
+        TaskStatsDto stats = taskCounters.getStats();
+
+        // Then
+        assertThat(stats).isEqualTo(new TaskStatsDto(11, 4, 7));
+        verify(taskStore, times(1)).countTasks();
+    }
+
+    @Test
+    @DisplayName("Should correct drift from writes made outside the service")
+    void shouldCorrectDrift() {
+        // Given
+        when(taskStore.countTasks()).thenReturn(counts(10, 4), counts(12, 5));
+        taskCounters.load();
+
+        // When
+        taskCounters.reconcile();
+
+        // Then
+        assertThat(taskCounters.getStats()).isEqualTo(new TaskStatsDto(12, 5, 7));
+        assertThat(taskCounters.getCorrectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip a reconciliation that raced a write")
+    void shouldSkipReconciliationRacingWrite() {
+        // Given
+        when(taskStore.countTasks()).thenReturn(counts(10, 4));
+        taskCounters.load();
+        when(taskStore.countTasks()).thenAnswer(invocation -> {
+            // A task is created and counted by the service while the table is being counted
+            taskCounters.onCreated(1);
+            return counts(10, 4);
+        }).thenReturn(counts(11, 5));
+
+        // When
+        taskCounters.reconcile();
+        TaskStatsDto raced = taskCounters.getStats();
+        taskCounters.reconcile();
+
+        // Then
+        assertThat(raced).isEqualTo(new TaskStatsDto(11, 5, 6));
+        assertThat(taskCounters.getStats()).isEqualTo(new TaskStatsDto(11, 5, 6));
+        assertThat(taskCounters.getCorrectionCount()).isZero();
+    }
+
+    private static TaskCounts counts(long total, long incomplete) {
+        return new SpelAwareProxyProjectionFactory()
+                .createProjection(TaskCounts.class, Map.of("total", total, "incomplete", incomplete));
+    }
+}
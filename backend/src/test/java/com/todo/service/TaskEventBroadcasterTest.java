@@ -0,0 +1,118 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todo.dto.TaskChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskEventBroadcaster
+ */
+@DisplayName("Task Event Broadcaster Tests")
+class TaskEventBroadcasterTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    @Test
+    @DisplayName("Should replay events after the Last-Event-ID")
+    void shouldReplayAfterLastEventId() {
+        // Given
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, emitters, 16);
+        broadcaster.subscribe(null);
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, List.of(1L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, List.of(2L)));
+        String firstEventId = emitters.get(0).ids().get(0);
+        
+        // When
+        broadcaster.subscribe(firstEventId);
+        
+        // Then
+        RecordingEmitter resumed = emitters.get(1);
+        assertThat(resumed.sent()).noneMatch(event -> event.contains("task-completed"));
+        assertThat(resumed.sent()).anyMatch(event -> event.contains("task-deleted") && event.contains("[2]"));
+    }
+    
+    @Test
+    @DisplayName("Should ask clients to reload when their Last-Event-ID cannot be resumed")
+    void shouldResetUnknownLastEventId() {
+        // Given
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, emitters, 16);
+        
+        // When
+        broadcaster.subscribe("previous-instance-42");
+        
+        // Then
+        assertThat(emitters.get(0).sent()).anyMatch(event -> event.contains("event:reset"));
+    }
+    
+    @Test
+    @DisplayName("Should disconnect a subscriber whose buffer overflows")
+    void shouldDropSlowSubscriber() {
+        // Given a dispatcher that never gets to run
+        List<Runnable> pending = new ArrayList<>();
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        TaskEventBroadcaster broadcaster = broadcaster(pending::add, emitters, 4);
+        broadcaster.subscribe(null);
+        
+        // When
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, List.of(id)));
+        }
+        
+        // Then
+        assertThat(emitters.get(0).completed).isTrue();
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+        assertThat(broadcaster.getDroppedSubscriberCount()).isEqualTo(1);
+    }
+    
+    private TaskEventBroadcaster broadcaster(Executor dispatcher, List<RecordingEmitter> emitters, int bufferSize) {
+        return new TaskEventBroadcaster(objectMapper, dispatcher, () -> {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }, 100, bufferSize, 10);
+    }
+    
+    /**
+     * Emitter that records the wire format of sent events instead of writing a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private boolean completed;
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+        
+        @Override
+        public void complete() {
+            completed = true;
+        }
+        
+        List<String> sent() {
+            return events;
+        }
+        
+        List<String> ids() {
+            return events.stream()
+                    .filter(event -> event.startsWith("id:"))
+                    .map(event -> event.substring(3, event.indexOf('\n')))
+                    .toList();
+        }
+    }
+}
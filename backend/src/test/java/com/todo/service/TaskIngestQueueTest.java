@@ -0,0 +1,220 @@
+package com.todo.service;
+
+import com.todo.dto.TaskBulkItemResultDto;
+import com.todo.dto.TaskCreateDto;
+import com.todo.dto.TaskIngestStatusDto;
+import com.todo.dto.TaskResponseDto;
+import com.todo.exception.TooManyRequestsException;
+import com.todo.journal.TaskJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskIngestQueue
+ */
+@DisplayName("Task Ingest Queue Tests")
+class TaskIngestQueueTest {
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private TaskIngestQueue queue;
+
+    @TempDir
+    Path journalDirectory;
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should write queued tasks in group commits of at most the batch size")
+    void shouldGroupCommit() {
+        // Given
+        storeAll();
+        queue = new TaskIngestQueue(taskService, journal(), true, 100, 3, 200, 100, 5_000, 10);
+        queue.start();
+
+        // When
+        List<TaskIngestQueue.Ticket> tickets = IntStream.range(0, 5)
+                .mapToObj(i -> queue.submit(new TaskCreateDto("Task " + i, null)))
+                .toList();
+        List<TaskIngestStatusDto> statuses = tickets.stream().map(queue::await).toList();
+
+        // Then
+        assertThat(statuses).extracting(TaskIngestStatusDto::getStatus)
+                .containsOnly(TaskIngestStatusDto.Status.CREATED);
+        assertThat(statuses).extracting(status -> status.getTask().getTitle())
+                .containsExactly("Task 0", "Task 1", "Task 2", "Task 3", "Task 4");
+        assertThat(batchSizes).containsExactly(3, 2);
+        assertThat(queue.getStatus(tickets.get(4).getId())).get()
+                .extracting(TaskIngestStatusDto::getStatus).isEqualTo(TaskIngestStatusDto.Status.CREATED);
+    }
+
+    @Test
+    @DisplayName("Should reject tasks with 429 while the queue is full")
+    void shouldRejectWhenQueueFull() throws InterruptedException {
+        // Given
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return created(invocation.getArgument(0));
+        });
+        queue = new TaskIngestQueue(taskService, journal(), true, 1, 10, 0, 100, 5_000, 10);
+        queue.start();
+        TaskIngestQueue.Ticket inBatch = queue.submit(new TaskCreateDto("In batch", null));
+        writing.await();
+        TaskIngestQueue.Ticket queued = queue.submit(new TaskCreateDto("Queued", null));
+
+        // When & Then
+        assertThatThrownBy(() -> queue.submit(new TaskCreateDto("Rejected", null)))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(queue.getRejectedCount()).isEqualTo(1);
+        assertThat(queue.getStatus(queued.getId())).get()
+                .extracting(TaskIngestStatusDto::getStatus).isEqualTo(TaskIngestStatusDto.Status.PENDING);
+        release.countDown();
+        assertThat(queue.await(inBatch).getStatus()).isEqualTo(TaskIngestStatusDto.Status.CREATED);
+        assertThat(queue.await(queued).getStatus()).isEqualTo(TaskIngestStatusDto.Status.CREATED);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed group commit and acknowledge the batch once it committed")
+    void shouldRetryFailedBatch() {
+        // Given
+        when(taskService.createTasks(anyList()))
+                .thenThrow(new IllegalStateException("Connection refused"))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)));
+        queue = new TaskIngestQueue(taskService, journal(), true, 10, 10, 0, 100, 5_000, 10);
+        queue.start();
+
+        // When
+        TaskIngestStatusDto status = queue.await(queue.submit(new TaskCreateDto("Retried", null)));
+        queue.shutdown();
+
+        // Then
+        assertThat(status.getStatus()).isEqualTo(TaskIngestStatusDto.Status.CREATED);
+        assertThat(queue.getFailedCount()).isEqualTo(1);
+        verify(taskService, times(2)).createTasks(anyList());
+        assertThat(journal().recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should split a batch that keeps failing and fail only the task the database rejects")
+    void shouldFailOnlyRejectedTaskOfFailingBatch() {
+        // Given
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            List<TaskCreateDto> tasks = invocation.getArgument(0);
+            if (tasks.stream().anyMatch(task -> task.getTitle().equals("Too long"))) {
+                throw new DataIntegrityViolationException("Value too long for column DESCRIPTION");
+            }
+            return created(tasks);
+        });
+        queue = new TaskIngestQueue(taskService, journal(), true, 10, 10, 200, 100, 5_000, 10);
+        queue.start();
+
+        // When
+        List<TaskIngestQueue.Ticket> tickets = Stream.of("Before", "Too long", "After")
+                .map(title -> queue.submit(new TaskCreateDto(title, null)))
+                .toList();
+        List<TaskIngestStatusDto> statuses = tickets.stream().map(queue::await).toList();
+        queue.shutdown();
+
+        // Then
+        assertThat(statuses).extracting(TaskIngestStatusDto::getStatus).containsExactly(
+                TaskIngestStatusDto.Status.CREATED, TaskIngestStatusDto.Status.FAILED,
+                TaskIngestStatusDto.Status.CREATED);
+        assertThat(statuses.get(1).getErrors()).containsKey("task");
+        assertThat(queue.getRejectedByDatabaseCount()).isEqualTo(1);
+        assertThat(journal().recover()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should leave a batch that never committed in the journal for the next start")
+    void shouldKeepFailedBatchInJournal() throws InterruptedException {
+        // Given
+        CountDownLatch attempted = new CountDownLatch(2);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            attempted.countDown();
+            throw new IllegalStateException("Connection refused");
+        });
+        queue = new TaskIngestQueue(taskService, journal(), true, 10, 10, 0, 100, 5_000, 10);
+        queue.start();
+
+        // When
+        TaskIngestQueue.Ticket ticket = queue.submit(new TaskCreateDto("Kept", null));
+        attempted.await();
+        queue.shutdown();
+
+        // Then
+        assertThat(queue.getStatus(ticket.getId())).get()
+                .extracting(TaskIngestStatusDto::getStatus).isEqualTo(TaskIngestStatusDto.Status.PENDING);
+        assertThat(journal().recover()).extracting(TaskJournal.Entry::task)
+                .containsExactly(new TaskCreateDto("Kept", null));
+    }
+
+    @Test
+    @DisplayName("Should create tasks left in the journal by a crash before accepting new ones")
+    void shouldReplayJournalOnStart() {
+        // Given
+        TaskJournal crashed = journal();
+        crashed.recover();
+        crashed.acknowledge(crashed.append(new TaskCreateDto("Committed", null)));
+        crashed.append(new TaskCreateDto("Lost in crash", "Only in the journal"));
+        List<List<TaskCreateDto>> created = new CopyOnWriteArrayList<>();
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            created.add(invocation.getArgument(0));
+            return created(invocation.getArgument(0));
+        });
+        TaskJournal reopened = journal();
+        queue = new TaskIngestQueue(taskService, reopened, false, 100, 10, 0, 100, 5_000, 10);
+
+        // When
+        queue.start();
+
+        // Then
+        assertThat(created).hasSize(1);
+        assertThat(created.get(0)).containsExactly(new TaskCreateDto("Lost in crash", "Only in the journal"));
+        assertThat(journal().recover()).isEmpty();
+    }
+
+    private TaskJournal journal() {
+        return new TaskJournal(true, journalDirectory, 0, TaskJournal.FsyncPolicy.OS);
+    }
+
+    private void storeAll() {
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            List<TaskCreateDto> tasks = invocation.getArgument(0);
+            batchSizes.add(tasks.size());
+            return created(tasks);
+        });
+    }
+
+    private static List<TaskBulkItemResultDto> created(List<TaskCreateDto> tasks) {
+        List<TaskBulkItemResultDto> results = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskResponseDto task = new TaskResponseDto();
+            task.setId((long) i + 1);
+            task.setTitle(tasks.get(i).getTitle());
+            results.add(TaskBulkItemResultDto.created(i, task));
+        }
+        return results;
+    }
+}
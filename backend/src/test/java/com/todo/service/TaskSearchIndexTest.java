@@ -0,0 +1,118 @@
+package com.todo.service;
+
+import com.todo.dto.TaskResponseDto;
+import com.todo.repository.TaskStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Unit tests for TaskSearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Task Search Index Tests")
+class TaskSearchIndexTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    private TaskSearchIndex taskSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            TaskStore.TaskTextConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1L, "Buy groceries", "Milk, eggs and bread");
+            consumer.accept(2L, "Bake bread", "Sourdough needs a starter");
+            consumer.accept(3L, "Call plumber", "Kitchen sink leaks; buy a new washer");
+            return null;
+        }).when(taskStore).forEachTaskText(any());
+        taskSearchIndex = new TaskSearchIndex(taskStore);
+        taskSearchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above description matches")
+    void shouldRankTitleMatchesFirst() {
+        // When
+        TaskSearchIndex.Hits hits = taskSearchIndex.search("bread", 0, 10);
+
+        // Then
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(hits.taskIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should require every term and expand the last one as a prefix")
+    void shouldMatchAllTermsWithPrefix() {
+        // When & Then
+        assertThat(taskSearchIndex.search("buy gro", 0, 10).taskIds()).containsExactly(1L);
+        assertThat(taskSearchIndex.search("BUY", 0, 10).taskIds()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(taskSearchIndex.search("wash* sink", 0, 10).taskIds()).containsExactly(3L);
+        assertThat(taskSearchIndex.search("bread plumber", 0, 10).total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should page through results")
+    void shouldPageThroughResults() {
+        // When
+        TaskSearchIndex.Hits first = taskSearchIndex.search("bu", 0, 1);
+        TaskSearchIndex.Hits second = taskSearchIndex.search("bu", 1, 1);
+
+        // Then
+        assertThat(first.total()).isEqualTo(2);
+        assertThat(second.total()).isEqualTo(2);
+        assertThat(List.of(first.taskIds().get(0), second.taskIds().get(0))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(taskSearchIndex.search("bu", 2, 1).taskIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank long posting lists the same when skipping blocks")
+    void shouldRankLongPostingListsLikeFullScan() {
+        // Given
+        List<TaskResponseDto> tasks = new ArrayList<>();
+        for (long id = 10; id < 1_010; id++) {
+            TaskResponseDto task = new TaskResponseDto();
+            task.setId(id);
+            task.setTitle("Report " + id);
+            task.setDescription("report ".repeat((int) (id % 7)) + "filler ".repeat((int) (id % 11)));
+            tasks.add(task);
+        }
+        taskSearchIndex.addAll(tasks);
+
+        // When
+        List<Long> top = taskSearchIndex.search("report", 0, 10).taskIds();
+        List<Long> all = taskSearchIndex.search("report", 0, 1_000).taskIds();
+
+        // Then
+        assertThat(top).containsExactlyElementsOf(all.subList(0, 10));
+        assertThat(taskSearchIndex.search("report", 0, 10).total()).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("Should apply created and deleted tasks")
+    void shouldApplyWrites() {
+        // Given
+        TaskResponseDto task = new TaskResponseDto();
+        task.setId(4L);
+        task.setTitle("Buy bread flour");
+
+        // When
+        taskSearchIndex.add(task);
+        taskSearchIndex.removeAll(List.of(2L));
+
+        // Then
+        assertThat(taskSearchIndex.search("bread", 0, 10).taskIds()).containsExactly(4L, 1L);
+        assertThat(taskSearchIndex.size()).isEqualTo(3);
+    }
+}
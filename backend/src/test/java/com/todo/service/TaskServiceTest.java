@@ -1,27 +1,38 @@
 package com.todo.service;
 
+import com.todo.dto.TaskBulkItemResultDto;
+import com.todo.dto.TaskBulkResultDto;
 import com.todo.dto.TaskCreateDto;
 import com.todo.dto.TaskResponseDto;
+import com.todo.dto.TaskSearchResultDto;
+import com.todo.dto.TaskStatsDto;
+import com.todo.exception.BadRequestException;
 import com.todo.exception.ResourceNotFoundException;
 import com.todo.model.Task;
-import com.todo.repository.TaskRepository;
+import com.todo.outbox.TaskOutbox;
+import com.todo.repository.TaskCounts;
+import com.todo.repository.TaskStore;
+import com.todo.repository.TaskSummary;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -32,15 +43,32 @@ import static org.mockito.Mockito.*;
 class TaskServiceTest {
     
     @Mock
-    private TaskRepository taskRepository;
+    private TaskStore taskStore;
+    
+    @Mock
+    private TaskOutbox taskOutbox;
+    
+    private RecentTasksCache recentTasksCache;
+    
+    private TaskSearchIndex taskSearchIndex;
+    
+    private TaskCounters taskCounters;
     
-    @InjectMocks
     private TaskService taskService;
     
     private Task testTask;
     
     @BeforeEach
     void setUp() {
+        recentTasksCache = new RecentTasksCache();
+        TaskVersion taskVersion = new TaskVersion();
+        RecentTasksIndex recentTasksIndex = new RecentTasksIndex(
+                taskStore, recentTasksCache, taskVersion, TaskService::convertToDto, 50);
+        taskSearchIndex = new TaskSearchIndex(taskStore);
+        taskCounters = new TaskCounters(taskStore);
+        taskService = new TaskService(taskStore, recentTasksCache, recentTasksIndex, taskSearchIndex,
+                taskVersion, taskCounters, event -> { }, taskOutbox, Validation.buildDefaultValidatorFactory().getValidator());
+        
         testTask = new Task();
         testTask.setId(1L);
         testTask.setTitle("Test Task");
@@ -55,7 +83,7 @@ class TaskServiceTest {
     void shouldGetRecentTasks() {
         // Given
         List<Task> tasks = Arrays.asList(testTask);
-        when(taskRepository.findRecentIncompleteTasks(any(PageRequest.class)))
+        when(taskStore.findRecentIncompleteTasks(any(PageRequest.class)))
                 .thenReturn(tasks);
         
         // When
@@ -64,7 +92,45 @@ class TaskServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Task");
-        verify(taskRepository).findRecentIncompleteTasks(any(PageRequest.class));
+        verify(taskStore).findRecentIncompleteTasks(any(PageRequest.class));
+    }
+    
+    @Test
+    @DisplayName("Should serve repeated recent task reads from cache")
+    void shouldServeRecentTasksFromCache() {
+        // Given
+        when(taskStore.findRecentIncompleteTasks(any(PageRequest.class)))
+                .thenReturn(Arrays.asList(testTask));
+        
+        // When
+        taskService.getRecentTasks();
+        List<TaskResponseDto> result = taskService.getRecentTasks();
+        
+        // Then
+        assertThat(result).hasSize(1);
+        verify(taskStore, times(1)).findRecentIncompleteTasks(any(PageRequest.class));
+        assertThat(recentTasksCache.getHitCount()).isEqualTo(1);
+        assertThat(recentTasksCache.getMissCount()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should drop completed task from recent tasks without querying again")
+    void shouldDropCompletedTaskFromRecentTasks() {
+        // Given
+        when(taskStore.findRecentIncompleteTasks(any(PageRequest.class)))
+                .thenReturn(Arrays.asList(testTask));
+        when(taskStore.completeIfIncomplete(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(taskStore.findById(1L)).thenReturn(Optional.of(completedTask()));
+        taskService.getRecentTasks();
+        
+        // When
+        taskService.markTaskAsCompleted(1L);
+        List<TaskResponseDto> result = taskService.getRecentTasks();
+        
+        // Then
+        assertThat(result).isEmpty();
+        verify(taskStore, times(1)).findRecentIncompleteTasks(any(PageRequest.class));
+        assertThat(recentTasksCache.getEvictionCount()).isEqualTo(1);
     }
     
     @Test
@@ -72,7 +138,7 @@ class TaskServiceTest {
     void shouldCreateTask() {
         // Given
         TaskCreateDto createDto = new TaskCreateDto("New Task", "New Description");
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        when(taskStore.save(any(Task.class))).thenReturn(testTask);
         
         // When
         TaskResponseDto result = taskService.createTask(createDto);
@@ -80,15 +146,43 @@ class TaskServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getTitle()).isEqualTo("Test Task");
-        verify(taskRepository).save(any(Task.class));
+        verify(taskStore).save(any(Task.class));
+    }
+    
+    @Test
+    @DisplayName("Should bulk create valid tasks and report invalid ones")
+    void shouldBulkCreateTasks() {
+        // Given
+        List<TaskCreateDto> createDtos = Arrays.asList(
+                new TaskCreateDto("First", null),
+                new TaskCreateDto("", "Missing title"),
+                new TaskCreateDto("Second", "Description"));
+        when(taskStore.insertAll(anyList())).thenAnswer(i -> {
+            List<Task> tasks = i.getArgument(0);
+            long id = 10;
+            for (Task task : tasks) {
+                task.setId(id++);
+            }
+            return tasks;
+        });
+        
+        // When
+        List<TaskBulkItemResultDto> result = taskService.createTasks(createDtos);
+        
+        // Then
+        assertThat(result).extracting(TaskBulkItemResultDto::isSuccess).containsExactly(true, false, true);
+        assertThat(result.get(0).getTask().getId()).isEqualTo(10L);
+        assertThat(result.get(1).getErrors()).containsKey("title");
+        assertThat(result.get(2).getTask().getId()).isEqualTo(11L);
+        verify(taskStore).insertAll(argThat(tasks -> tasks.size() == 2));
     }
     
     @Test
     @DisplayName("Should mark task as completed")
     void shouldMarkTaskAsCompleted() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-        when(taskRepository.save(any(Task.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(taskStore.completeIfIncomplete(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(taskStore.findById(1L)).thenReturn(Optional.of(completedTask()));
         
         // When
         TaskResponseDto result = taskService.markTaskAsCompleted(1L);
@@ -96,30 +190,72 @@ class TaskServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getCompleted()).isTrue();
-        verify(taskRepository).findById(1L);
-        verify(taskRepository).save(any(Task.class));
+        assertThat(result.getDescription()).isEqualTo("Test Description");
+        verify(taskStore).completeIfIncomplete(eq(1L), any(LocalDateTime.class));
+        verify(taskStore, never()).save(any(Task.class));
+    }
+    
+    @Test
+    @DisplayName("Should treat completing an already completed task as a no-op")
+    void shouldCompleteAlreadyCompletedTaskIdempotently() {
+        // Given
+        when(taskStore.completeIfIncomplete(eq(1L), any(LocalDateTime.class))).thenReturn(0);
+        when(taskStore.findById(1L)).thenReturn(Optional.of(completedTask()));
+        
+        // When
+        TaskResponseDto result = taskService.markTaskAsCompleted(1L);
+        
+        // Then
+        assertThat(result.getCompleted()).isTrue();
+        assertThat(result.getDescription()).isEqualTo("Test Description");
+        verify(taskOutbox, never()).append(any());
+    }
+    
+    @Test
+    @DisplayName("Should not publish a repeated bulk completion")
+    void shouldNotPublishRepeatedBulkCompletion() {
+        // Given
+        Task incomplete = new Task(testTask.getId(), testTask.getTitle(), null, false,
+                testTask.getCreatedAt(), testTask.getUpdatedAt());
+        TaskSummary incompleteSummary = new SpelAwareProxyProjectionFactory()
+                .createProjection(TaskSummary.class, incomplete);
+        when(taskStore.findSummariesByIdIn(List.of(1L)))
+                .thenReturn(List.of(incompleteSummary))
+                .thenReturn(List.of(completedSummary()));
+        when(taskStore.completeAllByIdIn(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(1);
+    
+        // When
+        taskService.completeTasks(List.of(1L));
+        TaskBulkResultDto repeated = taskService.completeTasks(List.of(1L));
+    
+        // Then
+        assertThat(repeated.getAffected()).isZero();
+        assertThat(repeated.getMissingIds()).isEmpty();
+        verify(taskStore, times(1)).completeAllByIdIn(any(), any(LocalDateTime.class));
+        verify(taskOutbox, times(1)).append(any());
     }
     
     @Test
     @DisplayName("Should throw exception when task not found for completion")
     void shouldThrowExceptionWhenTaskNotFoundForCompletion() {
         // Given
-        when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+        when(taskStore.findById(999L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> taskService.markTaskAsCompleted(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Task not found with id: 999");
         
-        verify(taskRepository).findById(999L);
-        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskStore).findById(999L);
+        verify(taskStore, never()).save(any(Task.class));
+        verify(taskOutbox, never()).append(any());
     }
     
     @Test
     @DisplayName("Should get task by ID")
     void shouldGetTaskById() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskStore.findById(1L)).thenReturn(Optional.of(testTask));
         
         // When
         TaskResponseDto result = taskService.getTaskById(1L);
@@ -128,21 +264,21 @@ class TaskServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getTitle()).isEqualTo("Test Task");
-        verify(taskRepository).findById(1L);
+        verify(taskStore).findById(1L);
     }
     
     @Test
     @DisplayName("Should throw exception when task not found by ID")
     void shouldThrowExceptionWhenTaskNotFoundById() {
         // Given
-        when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+        when(taskStore.findById(999L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> taskService.getTaskById(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Task not found with id: 999");
         
-        verify(taskRepository).findById(999L);
+        verify(taskStore).findById(999L);
     }
     
     @Test
@@ -150,7 +286,7 @@ class TaskServiceTest {
     void shouldGetAllTasks() {
         // Given
         List<Task> tasks = Arrays.asList(testTask);
-        when(taskRepository.findAll()).thenReturn(tasks);
+        when(taskStore.findAll()).thenReturn(tasks);
         
         // When
         List<TaskResponseDto> result = taskService.getAllTasks();
@@ -158,36 +294,81 @@ class TaskServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Task");
-        verify(taskRepository).findAll();
+        verify(taskStore).findAll();
     }
     
     @Test
     @DisplayName("Should delete task")
     void shouldDeleteTask() {
         // Given
-        when(taskRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(taskRepository).deleteById(1L);
+        when(taskStore.deleteIncompleteByIdIn(List.of(1L))).thenReturn(1);
+        when(taskStore.countTasks()).thenReturn(new SpelAwareProxyProjectionFactory()
+                .createProjection(TaskCounts.class, Map.of("total", 2L, "incomplete", 1L)));
+        taskCounters.load();
         
         // When
         taskService.deleteTask(1L);
         
         // Then
-        verify(taskRepository).existsById(1L);
-        verify(taskRepository).deleteById(1L);
+        verify(taskStore, never()).findById(anyLong());
+        verify(taskStore, never()).deleteAllByIdIn(any());
+        assertThat(taskCounters.getStats()).isEqualTo(new TaskStatsDto(1, 0, 1));
     }
     
     @Test
     @DisplayName("Should throw exception when deleting non-existent task")
     void shouldThrowExceptionWhenDeletingNonExistentTask() {
         // Given
-        when(taskRepository.existsById(999L)).thenReturn(false);
+        when(taskStore.deleteIncompleteByIdIn(List.of(999L))).thenReturn(0);
+        when(taskStore.deleteAllByIdIn(List.of(999L))).thenReturn(0);
         
         // When & Then
         assertThatThrownBy(() -> taskService.deleteTask(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Task not found with id: 999");
         
-        verify(taskRepository).existsById(999L);
-        verify(taskRepository, never()).deleteById(anyLong());
+        verify(taskOutbox, never()).append(any());
+    }
+    
+    @Test
+    @DisplayName("Should search tasks in rank order")
+    void shouldSearchTasksInRankOrder() {
+        // Given
+        Task other = new Task();
+        other.setId(2L);
+        other.setTitle("Write report");
+        other.setDescription("Mention the test results");
+        other.setCompleted(false);
+        taskSearchIndex.rebuild();
+        taskSearchIndex.addAll(List.of(TaskService.convertToDto(other), TaskService.convertToDto(testTask)));
+        when(taskStore.findSummariesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new SpelAwareProxyProjectionFactory().createProjection(TaskSummary.class, other),
+                new SpelAwareProxyProjectionFactory().createProjection(TaskSummary.class, testTask)));
+        
+        // When
+        TaskSearchResultDto result = taskService.searchTasks("tes", 0, 10);
+        
+        // Then
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(TaskResponseDto::getId).containsExactly(1L, 2L);
+        assertThat(result.isHasMore()).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should reject blank search queries")
+    void shouldRejectBlankSearchQueries() {
+        // When & Then
+        assertThatThrownBy(() -> taskService.searchTasks("  ", 0, 10))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(taskStore);
+    }
+    
+    private TaskSummary completedSummary() {
+        return new SpelAwareProxyProjectionFactory().createProjection(TaskSummary.class, completedTask());
+    }
+    
+    private Task completedTask() {
+        return new Task(testTask.getId(), testTask.getTitle(), testTask.getDescription(), true,
+                testTask.getCreatedAt(), LocalDateTime.now());
     }
 }
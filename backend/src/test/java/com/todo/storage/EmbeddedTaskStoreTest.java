@@ -0,0 +1,232 @@
+package com.todo.storage;
+
+import com.todo.journal.TaskJournal;
+import com.todo.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for EmbeddedTaskStore
+ */
+@DisplayName("Embedded Task Store Tests")
+class EmbeddedTaskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<EmbeddedTaskStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(EmbeddedTaskStore::close);
+    }
+
+    @Test
+    @DisplayName("Should page tasks newest first and keep only incomplete ones in the incomplete index")
+    void shouldPageNewestFirst() {
+        // Given
+        EmbeddedTaskStore store = open();
+        List<Task> tasks = store.insert(IntStream.range(0, 5).mapToObj(i -> task("Task " + i)).toList());
+        store.complete(List.of(tasks.get(3).getId()), LocalDateTime.now());
+
+        // When
+        List<Task> firstPage = store.newestFirst(false, null, null, 2, false);
+        Task last = firstPage.get(1);
+        List<Task> secondPage = store.newestFirst(false, last.getCreatedAt(), last.getId(), 10, false);
+        List<Task> incomplete = store.newestFirst(true, null, null, 10, true);
+
+        // Then
+        assertThat(firstPage).extracting(Task::getTitle).containsExactly("Task 4", "Task 3");
+        assertThat(secondPage).extracting(Task::getTitle).containsExactly("Task 2", "Task 1", "Task 0");
+        assertThat(incomplete).extracting(Task::getTitle).containsExactly("Task 4", "Task 2", "Task 1", "Task 0");
+        assertThat(store.countIncomplete()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should recover from the snapshot and the log written after it")
+    void shouldRecoverFromSnapshotAndLog() {
+        // Given
+        EmbeddedTaskStore store = open();
+        List<Task> tasks = store.insert(List.of(task("Kept"), task("Deleted"), task("Completed")));
+        store.snapshot();
+        store.delete(List.of(tasks.get(1).getId()), false);
+        store.complete(List.of(tasks.get(2).getId()), LocalDateTime.now());
+        Task renamed = store.find(tasks.get(0).getId(), true).orElseThrow();
+        renamed.setTitle("Renamed — ünïcödé");
+        store.save(renamed);
+        Task added = store.insert(List.of(task("Added"))).get(0);
+
+        // When: reopened without closing, as after a crash
+        EmbeddedTaskStore recovered = open();
+
+        // Then
+        assertThat(recovered.count()).isEqualTo(3);
+        assertThat(recovered.find(tasks.get(0).getId(), true)).get()
+                .extracting(Task::getTitle).isEqualTo("Renamed — ünïcödé");
+        assertThat(recovered.find(tasks.get(0).getId(), true).orElseThrow().getDescription())
+                .isEqualTo("Description of Kept");
+        assertThat(recovered.exists(tasks.get(1).getId())).isFalse();
+        assertThat(recovered.find(tasks.get(2).getId(), false).orElseThrow().getCompleted()).isTrue();
+        assertThat(recovered.find(added.getId(), false).orElseThrow().getCreatedAt()).isEqualTo(added.getCreatedAt());
+        assertThat(recovered.insert(List.of(task("Next"))).get(0).getId()).isGreaterThan(added.getId());
+    }
+
+    @Test
+    @DisplayName("Should apply writes made in a transaction only when it commits")
+    void shouldApplyTransactionalWritesOnCommit() {
+        // Given
+        EmbeddedTaskStore store = open();
+        Task kept = store.insert(List.of(task("Kept"))).get(0);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:embedded-task-store")));
+        List<Boolean> seenInTransaction = new ArrayList<>();
+
+        // When
+        Long rolledBack = transaction.execute(status -> {
+            Long id = store.save(task("Rolled back")).getId();
+            store.delete(List.of(kept.getId()), false);
+            status.setRollbackOnly();
+            return id;
+        });
+        Long committed = transaction.execute(status -> {
+            Long id = store.insert(List.of(task("Committed"))).get(0).getId();
+            store.complete(List.of(id), LocalDateTime.now());
+            seenInTransaction.add(store.find(id, false).orElseThrow().getCompleted());
+            seenInTransaction.add(CompletableFuture.supplyAsync(() -> store.exists(id)).join());
+            return id;
+        });
+
+        // Then: the transaction sees its own writes, other threads only once committed
+        assertThat(seenInTransaction).containsExactly(true, false);
+        assertThat(store.exists(rolledBack)).isFalse();
+        assertThat(store.exists(kept.getId())).isTrue();
+        assertThat(store.find(committed, false).orElseThrow().getCompleted()).isTrue();
+        assertThat(open().newestFirst(false, null, null, 10, false))
+                .extracting(Task::getTitle).containsExactly("Committed", "Kept");
+    }
+
+    @Test
+    @DisplayName("Should let other writers go on while a transaction is open and rebase its changes at commit")
+    void shouldRebaseTransactionalWritesOnCommit() {
+        // Given
+        EmbeddedTaskStore store = open();
+        Task deleted = store.insert(List.of(task("Deleted"))).get(0);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:embedded-task-store-rebase")));
+
+        // When: another writer deletes the task the open transaction updates
+        transaction.executeWithoutResult(status -> {
+            Task renamed = store.find(deleted.getId(), true).orElseThrow();
+            renamed.setTitle("Renamed");
+            store.save(renamed);
+            CompletableFuture.runAsync(() -> store.delete(List.of(deleted.getId()), false))
+                    .orTimeout(5, TimeUnit.SECONDS)
+                    .join();
+        });
+
+        // Then: the update of the deleted task is dropped, in memory and in the log
+        assertThat(store.exists(deleted.getId())).isFalse();
+        assertThat(open().exists(deleted.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the committed outbox row when the changes cannot be appended")
+    void shouldKeepOutboxRowWhenAppendFails() {
+        // Given
+        EmbeddedTaskStore store = open();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:embedded-task-store-outbox;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE outbox (task_id BIGINT)");
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // When: the store is closed before the transaction commits
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            Long id = store.insert(List.of(task("Lost"))).get(0).getId();
+            jdbc.update("INSERT INTO outbox (task_id) VALUES (?)", id);
+            store.close();
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then: the event is published for a task that was never stored
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class)).isEqualTo(1);
+        assertThat(open().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop replaying a log at a torn record")
+    void shouldStopAtTornRecord() throws IOException {
+        // Given
+        EmbeddedTaskStore store = open();
+        store.insert(List.of(task("Intact")));
+        store.insert(List.of(task("Torn")));
+        Path log = logFiles().get(logFiles().size() - 1);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // When
+        EmbeddedTaskStore recovered = open();
+
+        // Then
+        assertThat(recovered.newestFirst(false, null, null, 10, false))
+                .extracting(Task::getTitle).containsExactly("Intact");
+    }
+
+    @Test
+    @DisplayName("Should delete the logs covered by a snapshot")
+    void shouldDeleteLogsCoveredBySnapshot() throws IOException {
+        // Given
+        EmbeddedTaskStore store = open();
+        store.insert(List.of(task("First")));
+
+        // When
+        store.snapshot();
+        store.snapshot();
+
+        // Then
+        assertThat(logFiles()).hasSize(1);
+        assertThat(store.getSnapshotCount()).isEqualTo(2);
+        assertThat(open().count()).isEqualTo(1);
+    }
+
+    private EmbeddedTaskStore open() {
+        EmbeddedTaskStore store = new EmbeddedTaskStore(directory, TaskJournal.FsyncPolicy.OS, 1_000);
+        opened.add(store);
+        return store;
+    }
+
+    private List<Path> logFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Description of " + title);
+        return task;
+    }
+}
@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import TaskForm from './components/TaskForm';
 import TaskList from './components/TaskList';
-import { getRecentTasks, createTask, completeTask, deleteTask } from './services/api';
+import { getRecentTasks, createTask, completeTask, deleteTask, subscribeToTaskEvents } from './services/api';
 import './index.css';
 
 function App() {
@@ -25,6 +25,15 @@ function App() {
 
   useEffect(() => {
     fetchTasks();
+
+    // Refresh quietly when tasks change in another tab or client
+    return subscribeToTaskEvents(async () => {
+      try {
+        setTasks(await getRecentTasks());
+      } catch (err) {
+        console.error('Error refreshing tasks:', err);
+      }
+    });
   }, []);
 
   const handleTaskCreated = async (taskData) => {
@@ -4,6 +4,8 @@ const API_BASE_URL = 'http://localhost:8080/api';
 
 const api = axios.create({
   baseURL: API_BASE_URL,
+  // Sends the read-your-writes cookie so reads after a write see it
+  withCredentials: true,
   headers: {
     'Content-Type': 'application/json',
   },
@@ -18,10 +20,10 @@ export const getRecentTasks = async () => {
 };
 
 /**
- * Create a new task
+ * Create a new task; waits for the commit when the server queues writes
  */
 export const createTask = async (taskData) => {
-  const response = await api.post('/tasks', taskData);
+  const response = await api.post('/tasks', taskData, { params: { durable: true } });
   return response.data.data;
 };
 
@@ -49,4 +51,17 @@ export const deleteTask = async (taskId) => {
   return response.data;
 };
 
+/**
+ * Subscribe to task changes pushed by the server (Server-Sent Events).
+ * The browser reconnects and resumes automatically.
+ * Returns a function that closes the subscription.
+ */
+export const subscribeToTaskEvents = (onChange) => {
+  const source = new EventSource(`${API_BASE_URL}/tasks/stream`);
+  ['task-created', 'task-completed', 'task-deleted', 'reset'].forEach((type) => {
+    source.addEventListener(type, onChange);
+  });
+  return () => source.close();
+};
+
 export default api;
@@ -0,0 +1,62 @@
+// k6 measurement of response compression for the task list and export.
+//
+// Seeds tasks with long descriptions, then reads a full page and the NDJSON
+// export. Run it once per encoding and compare the latency trends and
+// data_received (bytes on the wire) per iteration in the summaries:
+//   k6 run -e ENCODING=identity --summary-export=identity.json loadtest/compression.js
+//   k6 run -e ENCODING=gzip     --summary-export=gzip.json     loadtest/compression.js
+//
+// Environment variables:
+//   BASE_URL  API base URL (default http://localhost:8080/api)
+//   ENCODING  Accept-Encoding to send: identity | gzip (default gzip)
+//   TASKS     tasks to seed (default 1000)
+//   VUS       concurrent virtual users (default 10)
+//   DURATION  test duration (default 1m)
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api';
+const ENCODING = __ENV.ENCODING || 'gzip';
+const TASKS = parseInt(__ENV.TASKS || '1000', 10);
+const VUS = parseInt(__ENV.VUS || '10', 10);
+const DURATION = __ENV.DURATION || '1m';
+
+const pageLatency = new Trend('task_page_latency', true);
+const exportLatency = new Trend('task_export_latency', true);
+
+export const options = {
+  vus: VUS,
+  duration: DURATION,
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+const READ_PARAMS = { headers: { 'Accept-Encoding': ENCODING }, responseType: 'none' };
+
+export function setup() {
+  const words = 'task review deploy backend frontend database migration release cache index query latency'.split(' ');
+  for (let offset = 0; offset < TASKS; offset += 100) {
+    const tasks = [];
+    for (let i = offset; i < Math.min(offset + 100, TASKS); i++) {
+      const description = Array.from({ length: 120 }, (_, j) => words[(i * 7 + j * 13) % words.length]).join(' ');
+      tasks.push({ title: `Compression ${i}`, description });
+    }
+    const res = http.post(`${BASE_URL}/tasks/bulk`, JSON.stringify(tasks),
+      { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'seed ok': (r) => r.status === 201 });
+  }
+}
+
+export default function () {
+  const page = http.get(`${BASE_URL}/tasks/page?limit=100`, READ_PARAMS);
+  pageLatency.add(page.timings.duration);
+  check(page, { 'page ok': (r) => r.status === 200 });
+
+  const exported = http.get(`${BASE_URL}/tasks/export`, READ_PARAMS);
+  exportLatency.add(exported.timings.duration);
+  check(exported, { 'export ok': (r) => r.status === 200 });
+}
@@ -0,0 +1,66 @@
+// k6 load test for the task API.
+//
+// Run it once per execution mode and compare the summaries:
+//   TODO_VIRTUAL_THREADS=false docker-compose up -d --build backend && k6 run loadtest/tasks-api.js
+//   TODO_VIRTUAL_THREADS=true  docker-compose up -d --build backend && k6 run loadtest/tasks-api.js
+//
+// Environment variables:
+//   BASE_URL  API base URL (default http://localhost:8080/api)
+//   VUS       concurrent virtual users at the plateau (default 400)
+//   DURATION  plateau duration (default 2m)
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api';
+const VUS = parseInt(__ENV.VUS || '400', 10);
+const DURATION = __ENV.DURATION || '2m';
+
+const readLatency = new Trend('task_read_latency', true);
+const writeLatency = new Trend('task_write_latency', true);
+
+export const options = {
+  scenarios: {
+    mixed: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: DURATION, target: VUS },
+        { duration: '15s', target: 0 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export default function () {
+  // Mostly reads, like dashboard polling, with a steady trickle of writes
+  if (Math.random() < 0.9) {
+    const page = Math.random() < 0.5;
+    const res = http.get(page ? `${BASE_URL}/tasks/page?limit=20&view=summary` : `${BASE_URL}/tasks`);
+    readLatency.add(res.timings.duration);
+    check(res, { 'read ok': (r) => r.status === 200 });
+    return;
+  }
+
+  const created = http.post(
+    `${BASE_URL}/tasks`,
+    JSON.stringify({ title: `Load test ${__VU}-${__ITER}`, description: 'Created by k6' }),
+    JSON_HEADERS,
+  );
+  writeLatency.add(created.timings.duration);
+  if (!check(created, { 'create ok': (r) => r.status === 201 })) {
+    return;
+  }
+  const id = created.json('data.id');
+  const completed = http.put(`${BASE_URL}/tasks/${id}/complete`);
+  writeLatency.add(completed.timings.duration);
+  check(completed, { 'complete ok': (r) => r.status === 200 });
+}